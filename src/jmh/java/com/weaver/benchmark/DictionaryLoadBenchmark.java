@@ -0,0 +1,65 @@
+package com.weaver.benchmark;
+
+import com.weaver.model.DictionaryImage;
+import com.weaver.model.Lexicon;
+import com.weaver.model.LexiconShard;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dictionary load cost: the word list alone, the word list plus the
+ * classic-length shard from text with no compiled image (cold) and from the
+ * compiled image (warm), and the shared per-path cache
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DictionaryLoadBenchmark {
+    private static final String DICTIONARY = "dictionary.txt";
+
+    private Path cacheDir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // Keep the benchmark's images away from the user's cache directory
+        cacheDir = Files.createTempDirectory("weaver-bench");
+        System.setProperty(DictionaryImage.CACHE_DIR_PROPERTY, cacheDir.toString());
+        Lexicon.read(DICTIONARY).shard(Lexicon.DEFAULT_WORD_LENGTH);
+    }
+
+    @State(Scope.Thread)
+    public static class NoImage {
+        @Setup(Level.Invocation)
+        public void deleteImage() throws IOException {
+            Files.deleteIfExists(DictionaryImage.shardImagePath(DICTIONARY, Lexicon.DEFAULT_WORD_LENGTH));
+        }
+    }
+
+    @Benchmark
+    public Lexicon wordsOnly() {
+        return Lexicon.read(DICTIONARY);
+    }
+
+    @Benchmark
+    public LexiconShard coldLoadFromText(NoImage noImage) {
+        return Lexicon.read(DICTIONARY).shard(Lexicon.DEFAULT_WORD_LENGTH);
+    }
+
+    @Benchmark
+    public LexiconShard warmLoadFromImage() {
+        return Lexicon.read(DICTIONARY).shard(Lexicon.DEFAULT_WORD_LENGTH);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Lexicon sharedLexicon() {
+        return Lexicon.load(DICTIONARY);
+    }
+}
@@ -0,0 +1,39 @@
+package com.weaver.benchmark;
+
+import com.weaver.model.Lexicon;
+import com.weaver.model.WeaverGame;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of picking a random word and of generating a random puzzle
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RandomWordBenchmark {
+    private WeaverGame game;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        game = new WeaverGame(Lexicon.load("dictionary.txt"));
+        game.setRandom(new SplittableRandom(42));
+        game.getShard().getPuzzleGenerator().precompute();
+    }
+
+    @Benchmark
+    public String randomWord() {
+        return game.getRandomWord(Lexicon.DEFAULT_WORD_LENGTH);
+    }
+
+    @Benchmark
+    public String randomPuzzle() {
+        game.initializeRandomGame();
+        return game.getTargetWord();
+    }
+}
@@ -0,0 +1,62 @@
+package com.weaver.benchmark;
+
+import com.weaver.model.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Solver latency per search strategy over a fixed, seeded corpus of puzzles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SolverBenchmark {
+    private static final int CORPUS_SIZE = 256;
+
+    @Param({"bfs", "bidirectional-bfs", "a-star"})
+    public String strategy;
+
+    private WeaverSolver solver;
+    private String[] starts;
+    private String[] targets;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LexiconShard shard = Lexicon.load("dictionary.txt").shard(Lexicon.DEFAULT_WORD_LENGTH);
+        solver = new WeaverSolver(shard.getWordGraph(), strategyByName(strategy));
+
+        PuzzleGenerator generator = shard.getPuzzleGenerator();
+        generator.precompute();
+        SplittableRandom random = new SplittableRandom(2024);
+        starts = new String[CORPUS_SIZE];
+        targets = new String[CORPUS_SIZE];
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            PuzzleGenerator.Puzzle puzzle = generator.generate(1, Integer.MAX_VALUE, random);
+            starts[i] = puzzle.getStartWord();
+            targets[i] = puzzle.getTargetWord();
+        }
+    }
+
+    private static SearchStrategy strategyByName(String name) {
+        switch (name) {
+            case "bfs":
+                return new BfsStrategy();
+            case "a-star":
+                return new AStarStrategy();
+            default:
+                return new BidirectionalBfsStrategy();
+        }
+    }
+
+    @Benchmark
+    public SolverResult shortestPath() {
+        int i = next++ & (CORPUS_SIZE - 1);
+        return solver.shortestPath(starts[i], targets[i]);
+    }
+}
@@ -0,0 +1,69 @@
+package com.weaver.benchmark;
+
+import com.weaver.model.Lexicon;
+import com.weaver.model.WeaverGame;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move validation throughput for accepted moves and for each kind of rejection.
+ * Run with -prof gc to check that moves allocate nothing in steady state
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TryWordBenchmark {
+    // Restart the game regularly so the history of accepted moves stays bounded
+    private static final int MOVES_PER_GAME = 1024;
+
+    // With a listener for every event, as in the GUI, or none, as in a headless game
+    @Param({"false", "true"})
+    public boolean observed;
+
+    // With the Bloom filter pre-check in front of the dictionary, as on the server
+    @Param({"false", "true"})
+    public boolean filtered;
+
+    private WeaverGame game;
+    private int moves;
+    private int events;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        game = new WeaverGame(Lexicon.load("dictionary.txt"));
+        if (observed) {
+            game.getEventBus().subscribe(update -> events++);
+        }
+        game.setUseWordFilter(filtered);
+        game.initializeGame("able", "ably");
+        moves = 0;
+    }
+
+    @Benchmark
+    public boolean validMove() {
+        if (++moves == MOVES_PER_GAME) {
+            game.initializeGame("able", "ably");
+            moves = 0;
+        }
+        return game.tryWord((moves & 1) == 1 ? "ably" : "able");
+    }
+
+    @Benchmark
+    public boolean invalidLength() {
+        return game.tryWord("ables");
+    }
+
+    @Benchmark
+    public boolean invalidDifference() {
+        return game.tryWord("aces");
+    }
+
+    @Benchmark
+    public boolean notInDictionary() {
+        return game.tryWord("abxe");
+    }
+}
@@ -0,0 +1,314 @@
+package com.weaver.cli;
+
+import com.weaver.model.BidirectionalBfsStrategy;
+import com.weaver.model.DistanceTable;
+import com.weaver.model.GameUpdate;
+import com.weaver.model.Lexicon;
+import com.weaver.model.LexiconShard;
+import com.weaver.model.SearchStrategy;
+import com.weaver.model.SolverResult;
+import com.weaver.model.WeaverGame;
+import com.weaver.model.WeaverSolver;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Non-interactive batch mode. Reads one puzzle per line and writes one
+ * result per line in input order, as TSV with a header or as JSON Lines.
+ * Lines are processed in chunks on a thread pool with a bounded number of
+ * chunks in flight, so memory stays constant for inputs of any size
+ * <pre>
+ * solve:    "start target"        shortest ladder and its length
+ * validate: "word word ... word"  submitted ladder; validity, steps, optimal
+ *                                 steps and the first invalid step
+ * </pre>
+ */
+public class BatchProcessor {
+    public enum Mode { SOLVE, VALIDATE }
+
+    public enum Format { TSV, JSON }
+
+    private static final int CHUNK_LINES = 2048;
+    // Chunks queued or running per thread; bounds memory and keeps every core busy
+    private static final int CHUNKS_PER_THREAD = 2;
+
+    private final Lexicon lexicon;
+    private final Mode mode;
+    private final Format format;
+    private final int threads;
+    private final SearchStrategy strategy;
+    // Per thread game used to replay submitted ladders through tryWord
+    private final ThreadLocal<Validator> validators;
+
+    /**
+     * Constructors
+     * @param lexicon Dictionary
+     * @param mode Solve pairs or validate ladders
+     * @param format Output format
+     * @param threads Worker threads
+     */
+    public BatchProcessor(Lexicon lexicon, Mode mode, Format format, int threads) {
+        assert lexicon != null : "Lexicon cannot be null";
+        assert threads > 0 : "Thread count must be greater than 0";
+        this.lexicon = lexicon;
+        this.mode = mode;
+        this.format = format;
+        this.threads = threads;
+        this.strategy = new BidirectionalBfsStrategy();
+        this.validators = ThreadLocal.withInitial(() -> new Validator(lexicon));
+    }
+
+    /**
+     * Process every line of the input
+     * @param in Input, one puzzle per line
+     * @param out Output, flushed when done
+     * @return Number of lines processed
+     * @throws IOException If reading or writing fails
+     * @throws InterruptedException If interrupted while waiting for workers
+     */
+    public long process(BufferedReader in, Writer out) throws IOException, InterruptedException {
+        if (format == Format.TSV) {
+            out.write(mode == Mode.SOLVE
+                    ? "line\tstart\ttarget\tstatus\tsteps\tpath\n"
+                    : "line\tstatus\tvalid\tsteps\toptimal\tfirst_invalid_step\n");
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ArrayDeque<Future<String>> pending = new ArrayDeque<>();
+        long lineNumber = 0;
+        try {
+            List<String> chunk = new ArrayList<>(CHUNK_LINES);
+            String line;
+            while ((line = in.readLine()) != null) {
+                chunk.add(line);
+                if (chunk.size() == CHUNK_LINES) {
+                    pending.add(submit(pool, chunk, lineNumber + 1));
+                    lineNumber += chunk.size();
+                    chunk = new ArrayList<>(CHUNK_LINES);
+                    // Write results in input order once enough chunks are in flight
+                    if (pending.size() >= threads * CHUNKS_PER_THREAD) {
+                        out.write(await(pending.poll()));
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                pending.add(submit(pool, chunk, lineNumber + 1));
+                lineNumber += chunk.size();
+            }
+            while (!pending.isEmpty()) {
+                out.write(await(pending.poll()));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        out.flush();
+        return lineNumber;
+    }
+
+    private Future<String> submit(ExecutorService pool, List<String> lines, long firstLine) {
+        return pool.submit(() -> {
+            StringBuilder result = new StringBuilder(lines.size() * 48);
+            for (int i = 0; i < lines.size(); i++) {
+                String[] words = words(lines.get(i));
+                if (mode == Mode.SOLVE) {
+                    solve(firstLine + i, words, result);
+                } else {
+                    validate(firstLine + i, words, result);
+                }
+            }
+            return result.toString();
+        });
+    }
+
+    private static String await(Future<String> chunk) throws IOException, InterruptedException {
+        try {
+            return chunk.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Batch worker failed", e.getCause());
+        }
+    }
+
+    /**
+     * Split a line into lower-case words; anything but letters separates words
+     */
+    private static String[] words(String line) {
+        String trimmed = line.replaceAll("[^A-Za-z]+", " ").trim();
+        return trimmed.isEmpty() ? new String[0] : trimmed.toLowerCase(Locale.ROOT).split(" ");
+    }
+
+    private void solve(long line, String[] words, StringBuilder out) {
+        if (words.length != 2) {
+            row(out, line, "MALFORMED", "", "", -1, "");
+            return;
+        }
+        String start = words[0];
+        String target = words[1];
+        if (!lexicon.contains(start) || !lexicon.contains(target)) {
+            row(out, line, "NOT_IN_DICTIONARY", start, target, -1, "");
+            return;
+        }
+        if (start.length() != target.length()) {
+            row(out, line, "UNREACHABLE", start, target, -1, "");
+            return;
+        }
+        // Each word length has its own graph, built the first time a line needs it
+        WeaverSolver solver = new WeaverSolver(lexicon.shard(start.length()).getWordGraph(), strategy);
+        SolverResult result = solver.shortestPath(start, target);
+        row(out, line, result.isSolvable() ? "OK" : "UNREACHABLE", start, target,
+                result.getLength(), String.join(",", result.getPath()));
+    }
+
+    private void row(StringBuilder out, long line, String status, String start, String target, int steps, String path) {
+        if (format == Format.TSV) {
+            out.append(line).append('\t').append(start).append('\t').append(target).append('\t')
+                    .append(status).append('\t').append(steps).append('\t').append(path).append('\n');
+        } else {
+            out.append("{\"line\":").append(line)
+                    .append(",\"start\":\"").append(start)
+                    .append("\",\"target\":\"").append(target)
+                    .append("\",\"status\":\"").append(status)
+                    .append("\",\"steps\":").append(steps)
+                    .append(",\"path\":[");
+            if (!path.isEmpty()) {
+                out.append('"').append(path.replace(",", "\",\"")).append('"');
+            }
+            out.append("]}\n");
+        }
+    }
+
+    private void validate(long line, String[] words, StringBuilder out) {
+        if (words.length == 0) {
+            row(out, line, "MALFORMED", false, -1, -1, -1);
+            return;
+        }
+        int steps = words.length - 1;
+        int optimal = DistanceTable.UNREACHABLE;
+        if (!lexicon.contains(words[0])) {
+            row(out, line, WeaverGame.GameEvent.NOT_IN_DICTIONARY.name(), false, steps, optimal, 0);
+            return;
+        }
+        LexiconShard shard = lexicon.shard(words[0].length());
+        int startId = shard.getWordGraph().indexOf(words[0]);
+        int endId = shard.getWordGraph().indexOf(words[steps]);
+        if (endId >= 0) {
+            DistanceTable table = shard.getDistanceTable();
+            optimal = table != null ? table.distance(startId, endId)
+                    : new WeaverSolver(shard.getWordGraph(), strategy).shortestPath(words[0], words[steps]).getLength();
+        }
+        Validator validator = validators.get();
+        int invalidStep = validator.replay(words);
+        String status = invalidStep < 0 ? "OK" : validator.rejection.name();
+        row(out, line, status, invalidStep < 0, steps, optimal, invalidStep);
+    }
+
+    private void row(StringBuilder out, long line, String status, boolean valid, int steps, int optimal,
+                     int firstInvalidStep) {
+        if (format == Format.TSV) {
+            out.append(line).append('\t').append(status).append('\t').append(valid).append('\t')
+                    .append(steps).append('\t').append(optimal).append('\t').append(firstInvalidStep).append('\n');
+        } else {
+            out.append("{\"line\":").append(line)
+                    .append(",\"status\":\"").append(status)
+                    .append("\",\"valid\":").append(valid)
+                    .append(",\"steps\":").append(steps)
+                    .append(",\"optimal\":").append(optimal)
+                    .append(",\"firstInvalidStep\":").append(firstInvalidStep)
+                    .append("}\n");
+        }
+    }
+
+    /**
+     * Replays a ladder through WeaverGame.tryWord, so batch validation
+     * applies exactly the rules of an interactive game
+     */
+    private static final class Validator {
+        private final WeaverGame game;
+        private WeaverGame.GameEvent rejection;
+
+        private Validator(Lexicon lexicon) {
+            this.game = new WeaverGame(lexicon);
+            game.getEventBus().subscribe(this::onRejected, WeaverGame.GameEvent.INVALID_LENGTH,
+                    WeaverGame.GameEvent.INVALID_DIFFERENCE, WeaverGame.GameEvent.NOT_IN_DICTIONARY);
+        }
+
+        private void onRejected(GameUpdate update) {
+            rejection = update.getEvent();
+        }
+
+        /**
+         * @return Index of the first rejected word, or -1 if every step is valid
+         */
+        private int replay(String[] words) {
+            // The target is irrelevant: the ladder ends where its last word is
+            game.initializeGame(words[0], words[0]);
+            for (int i = 1; i < words.length; i++) {
+                if (!game.tryWord(words[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Run from the command line
+     * <pre>
+     * --batch solve|validate [--format tsv|json] [--threads N] [--dictionary path] [file]
+     * </pre>
+     * Reads standard input when no file is given
+     * @param args Arguments after --batch
+     * @throws IOException If reading or writing fails
+     * @throws InterruptedException If interrupted
+     */
+    public static void run(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            System.err.println("Usage: --batch solve|validate [--format tsv|json] [--threads N] [file]");
+            return;
+        }
+        Mode mode = Mode.valueOf(args[0].toUpperCase(Locale.ROOT));
+        Format format = Format.TSV;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String dictionary = "dictionary.txt";
+        String file = null;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--format":
+                    format = Format.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--dictionary":
+                    dictionary = args[++i];
+                    break;
+                default:
+                    file = args[i];
+                    break;
+            }
+        }
+
+        BatchProcessor processor = new BatchProcessor(Lexicon.load(dictionary), mode, format, threads);
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+        try (BufferedReader in = file == null || file.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+            long lines = processor.process(in, out);
+            System.err.println("Processed " + lines + " lines");
+        }
+    }
+}
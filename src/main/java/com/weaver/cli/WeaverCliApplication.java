@@ -1,6 +1,11 @@
 package com.weaver.cli;
 
+import com.weaver.metrics.MetricsRegistry;
+import com.weaver.model.Lexicon;
+import com.weaver.model.LexiconShard;
 import com.weaver.model.WeaverGame;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Scanner;
 
 /**
@@ -12,6 +17,7 @@ public class WeaverCliApplication {
 
     public WeaverCliApplication() {
         this.game = new WeaverGame("dictionary.txt");
+        game.setWordLength(Integer.getInteger(Lexicon.WORD_LENGTH_PROPERTY, Lexicon.DEFAULT_WORD_LENGTH));
         this.scanner = new Scanner(System.in);
     }
 
@@ -22,29 +28,46 @@ public class WeaverCliApplication {
         System.out.println("Welcome to Weaver Game！");
         
         // 初始化游戏
-        if (game.isUseRandomWords()) {
-            String startWord = game.getRandomWord(4);
-            String targetWord = game.getRandomWord(4);
-            game.initializeGame(startWord, targetWord);
+        if (game.isUseRandomWords() || game.getWordLength() != Lexicon.DEFAULT_WORD_LENGTH) {
+            game.initializeRandomGame();
         } else {
             //game.initializeGame("SOUL", "MATE");
             game.initializeGame("FISH", "BIRD");
         }
 
+        // Map or build the distance table in the background for the par score
+        if (game.getShard().hasDistanceTable()) {
+            Thread distanceTableLoader = new Thread(game.getShard()::getDistanceTable, "distance-table-loader");
+            distanceTableLoader.setDaemon(true);
+            distanceTableLoader.start();
+        }
+
         // Display the initial state
         displayGameState();
 
         // Main game loop
         while (true) {
-            System.out.print("Please enter a 4 - letter word (or type 'QUIT' to quit): ");
+            System.out.print("Please enter a " + game.getWordLength()
+                    + " - letter word (or type 'HINT' for a hint, 'METRICS' for statistics, 'QUIT' to quit): ");
             String input = scanner.nextLine().trim().toUpperCase();
 
             if (input.equals("QUIT")) {
                 break;
             }
 
-            if (input.length() != 4) {
-                System.out.println("Please enter a 4 - letter word");
+            if (input.equals("HINT")) {
+                String hint = game.getHint();
+                System.out.println(hint != null ? "Hint: try " + hint.toUpperCase() : "The target cannot be reached");
+                continue;
+            }
+
+            if (input.equals("METRICS")) {
+                System.out.print(MetricsRegistry.getDefault().snapshot().toText());
+                continue;
+            }
+
+            if (input.length() != game.getWordLength()) {
+                System.out.println("Please enter a " + game.getWordLength() + " - letter word");
                 continue;
             }
 
@@ -52,6 +75,8 @@ public class WeaverCliApplication {
                 displayGameState();
                 if (game.hasWon()) {
                     System.out.println("Congratulations on winning!");
+                    System.out.println("Steps: " + game.getStepCount()
+                            + (isParReady() ? ", par: " + game.getParSteps() : ""));
                     break;
                 }
             } else if (game.isShowErrorMessage()) {
@@ -62,6 +87,15 @@ public class WeaverCliApplication {
         scanner.close();
     }
 
+    /**
+     * Check if the par lookup returns without building the distance table; shards
+     * too large for a table answer it with a quick search instead
+     */
+    private boolean isParReady() {
+        LexiconShard shard = game.getShard();
+        return shard.isDistanceTableLoaded() || !shard.hasDistanceTable();
+    }
+
     /**
      * Displaying game status
      */
@@ -88,7 +122,11 @@ public class WeaverCliApplication {
         System.out.println();
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("--batch")) {
+            BatchProcessor.run(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         new WeaverCliApplication().run();
     }
 } 
\ No newline at end of file
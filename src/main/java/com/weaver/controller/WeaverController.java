@@ -1,6 +1,10 @@
 package com.weaver.controller;
 
+import com.weaver.model.GameUpdate;
+import com.weaver.model.Lexicon;
+import com.weaver.model.LexiconShard;
 import com.weaver.model.WeaverGame;
+import com.weaver.model.WordCodec;
 import com.weaver.view.WeaverView;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
@@ -13,11 +17,14 @@ public class WeaverController {
     private final WeaverGame model;
     private final WeaverView view;
     private StringBuilder currentInput;
+    // Path so far, kept from WORD_ACCEPTED events instead of re-reading the history
+    private final StringBuilder path;
 
     public WeaverController(WeaverGame model, WeaverView view) {
         this.model = model;
         this.view = view;
         this.currentInput = new StringBuilder();
+        this.path = new StringBuilder();
         initializeController();
     }
 
@@ -33,6 +40,9 @@ public class WeaverController {
         // Set a new game button event
         view.getNewGameButton().setOnAction(e -> handleNewGame());
 
+        // Set the hint button event
+        view.getHintButton().setOnAction(e -> handleHint());
+
         // Setting flag controls
         view.getShowErrorMessageCheckBox().setSelected(model.isShowErrorMessage());
         view.getShowPathCheckBox().setSelected(model.isShowPath());
@@ -41,10 +51,8 @@ public class WeaverController {
         view.getShowErrorMessageCheckBox().setOnAction(e -> 
             model.setShowErrorMessage(view.getShowErrorMessageCheckBox().isSelected()));
         
-        view.getShowPathCheckBox().setOnAction(e -> {
-            model.setShowPath(view.getShowPathCheckBox().isSelected());
-            updateView(); // Update the display to reflect the path display state
-        });
+        view.getShowPathCheckBox().setOnAction(e ->
+            model.setShowPath(view.getShowPathCheckBox().isSelected()));
         
         view.getUseRandomWordsCheckBox().setOnAction(e -> 
             model.setUseRandomWords(view.getUseRandomWordsCheckBox().isSelected()));
@@ -63,8 +71,62 @@ public class WeaverController {
                 key.setOnAction(e -> handleKeyPress(key.getText()));
             }
         }
-        // The update view shows the initial state
+        // Narrow the keyboard to letters that can still make a valid move
+        view.getInputField().textProperty().addListener((observable, old, text) -> updateKeyboard());
+
+        // The update view shows the initial state, events keep it current
         updateView();
+        model.getEventBus().subscribe(this::onGameEvent);
+    }
+
+    /**
+     * Apply a game event to the view
+     */
+    private void onGameEvent(GameUpdate update) {
+        if (update.getEvent() == WeaverGame.GameEvent.GAME_WON) {
+            // Not timed, the victory dialog waits for the player
+            showWin(update.getSteps());
+            return;
+        }
+        long begin = System.nanoTime();
+        applyEvent(update);
+        view.recordRenderTime(System.nanoTime() - begin);
+    }
+
+    private void applyEvent(GameUpdate update) {
+        switch (update.getEvent()) {
+            case GAME_INITIALIZED:
+                updateView();
+                break;
+            case WORD_ACCEPTED:
+                addHistoryRow(update.getWord());
+                showPath();
+                updateKeyboard();
+                break;
+            case SETTINGS_CHANGED:
+                if (model.isShowPath()) {
+                    showPath();
+                } else {
+                    view.showMessage("");
+                }
+                break;
+            default:
+                if (model.isShowErrorMessage()) {
+                    view.showMessage(rejectionMessage(update));
+                }
+                break;
+        }
+    }
+
+    private static String rejectionMessage(GameUpdate update) {
+        switch (update.getEvent()) {
+            case INVALID_LENGTH:
+                return "Invalid word: wrong length";
+            case INVALID_DIFFERENCE:
+                return "Invalid word: change exactly one letter";
+            default:
+                return "Invalid word: " + update.getWord().toUpperCase() + " is not in the dictionary";
+        }
     }
 
     /**
@@ -82,7 +144,7 @@ public class WeaverController {
                 }
                 break;
             default:
-                if (currentInput.length() < 4) {
+                if (currentInput.length() < model.getWordLength()) {
                     currentInput.append(key);
                     view.getInputField().setText(currentInput.toString());
                 }
@@ -95,96 +157,149 @@ public class WeaverController {
      */
     private void handleSubmit() {
         String input = view.getInputField().getText().toUpperCase();
-        if (input.length() != 4) {
-            view.showMessage("Please enter a 4 - letter word");
+        if (input.length() != model.getWordLength()) {
+            view.showMessage("Please enter a " + model.getWordLength() + " - letter word");
             return;
         }
 
-        if (model.tryWord(input)) {
-            updateView();
-            if (model.hasWon()) {
-                view.showSuccess();
-                view.getSubmitButton().setDisable(true);
-                
-                // Displays a more detailed victory dialog
-                Alert alert = new Alert(Alert.AlertType.INFORMATION);
-                alert.setTitle("Game Winning");
-                alert.setHeaderText("Congratulations on completing the challenge!");
-                alert.setContentText(
-                    String.format("You successfully converted %s to %s！\n\n" +
-                                "Game Statistics: \n" +
-                                "- Steps Number: %d\n" +
-                                "- Transition Path: %s",
-                                model.getStartWord().toUpperCase(),
-                                model.getTargetWord().toUpperCase(),
-                                model.getGameHistory().size() - 1,
-                                String.join(" → ", model.getGameHistory()).toUpperCase()
-                    )
-                );
-                alert.showAndWait();
-            }
-        } else if (model.isShowErrorMessage()) {
-            view.showMessage("Invalid word!");
-        }
+        // Results arrive as events, see onGameEvent
+        model.tryWord(input);
 
         view.getInputField().clear();
         currentInput.setLength(0);
     }
 
+    /**
+     * Show the victory message and dialog
+     */
+    private void showWin(int steps) {
+        view.showSuccess();
+        view.getSubmitButton().setDisable(true);
+
+        // Displays a more detailed victory dialog
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Game Winning");
+        alert.setHeaderText("Congratulations on completing the challenge!");
+        alert.setContentText(
+            String.format("You successfully converted %s to %s！\n\n" +
+                        "Game Statistics: \n" +
+                        "- Steps Number: %d\n" +
+                        "%s" +
+                        "- Transition Path: %s",
+                        model.getStartWord().toUpperCase(),
+                        model.getTargetWord().toUpperCase(),
+                        steps,
+                        formatPar(steps),
+                        path.toString().replace(" -> ", " → ").toUpperCase()
+            )
+        );
+        alert.showAndWait();
+    }
+
+    /**
+     * Par and efficiency lines for the victory dialog, left out while the
+     * distance table is still being built in the background
+     */
+    private String formatPar(int steps) {
+        if (!isParReady()) {
+            return "";
+        }
+        int par = model.getParSteps();
+        return String.format("- Par: %d\n- Efficiency: %d%%\n", par, steps == 0 ? 100 : par * 100 / steps);
+    }
+
+    /**
+     * Handle hint requests
+     */
+    private void handleHint() {
+        String hint = model.getHint();
+        if (hint == null) {
+            view.showMessage(model.hasWon() ? "You have already reached the target!" : "The target cannot be reached");
+            return;
+        }
+        String message = "Hint: try " + hint.toUpperCase();
+        if (isParReady()) {
+            message += String.format(" (%d steps to go, par %d)", model.getRemainingSteps(), model.getParSteps());
+        }
+        view.showMessage(message);
+    }
+
+    /**
+     * Check if par lookups return without building the distance table; shards
+     * too large for a table answer them with a quick search instead
+     */
+    private boolean isParReady() {
+        LexiconShard shard = model.getShard();
+        return shard.isDistanceTableLoaded() || !shard.hasDistanceTable();
+    }
+
     /**
      * Handling reset operations
      */
     private void handleReset() {
         model.initializeGame(model.getStartWord(), model.getTargetWord());
-        view.clearHistory();
-        view.getSubmitButton().setDisable(false);
-        view.showMessage("");
-        updateView();
     }
 
     /**
      * Handle new game actions
      */
     private void handleNewGame() {
-        if (model.isUseRandomWords()) {
-            String startWord = model.getRandomWord(4);
-            String targetWord = model.getRandomWord(4);
-            model.initializeGame(startWord, targetWord);
+        // The fixed puzzle only exists for the classic word length
+        if (model.isUseRandomWords() || model.getWordLength() != Lexicon.DEFAULT_WORD_LENGTH) {
+            model.initializeRandomGame();
         } else {
             model.initializeGame("SOUL", "MATE");
         }
-        view.clearHistory();
-        view.getSubmitButton().setDisable(false);
-        view.showMessage("");
-        updateView();
     }
 
     /**
-     * Update the view display
+     * Redraw the view from the model, used when a game starts
      */
     private void updateView() {
         view.clearHistory();
-        var history = model.getGameHistory();
-        String startWord = model.getStartWord();
+        view.getSubmitButton().setDisable(model.hasWon());
+        view.showMessage("");
+        view.updateWords(model.getStartWord(), model.getTargetWord());
+        view.setWordLength(model.getWordLength());
+
+        path.setLength(0);
+        for (int i = 0; i < model.getHistorySize(); i++) {
+            addHistoryRow(WordCodec.unpack(model.getHistoryPacked(i)));
+        }
+        showPath();
+        updateKeyboard();
+    }
+
+    /**
+     * Enable the keys that can follow the typed letters, a mask lookup per keystroke
+     */
+    private void updateKeyboard() {
+        view.setEnabledLetters(model.getNextLetterMask(view.getInputField().getText()));
+    }
+
+    /**
+     * Append one played word to the history and the path
+     */
+    private void addHistoryRow(String word) {
         String targetWord = model.getTargetWord();
-        view.updateWords(startWord, targetWord);
+        boolean[] correctPositions = new boolean[word.length()];
+        for (int i = 0; i < word.length(); i++) {
+            correctPositions[i] = word.charAt(i) == targetWord.charAt(i);
+        }
+        view.addWordToHistory(word, correctPositions);
 
-        for (String word : history) {
-            boolean[] correctPositions = new boolean[word.length()];
-            for (int i = 0; i < word.length(); i++) {
-                correctPositions[i] = word.charAt(i) == targetWord.charAt(i);
-            }
-            view.addWordToHistory(word, correctPositions);
+        if (path.length() > 0) {
+            path.append(" -> ");
         }
+        path.append(word);
+    }
 
-        // If path display is enabled, display the current path
-        if (model.isShowPath() && !history.isEmpty()) {
-            StringBuilder pathMessage = new StringBuilder("Current path: ");
-            for (String word : history) {
-                pathMessage.append(word).append(" -> ");
-            }
-            pathMessage.setLength(pathMessage.length() - 4); // Remove the last " -> "
-            view.showMessage(pathMessage.toString());
+    /**
+     * If path display is enabled, display the current path
+     */
+    private void showPath() {
+        if (model.isShowPath() && path.length() > 0) {
+            view.showMessage("Current path: " + path);
         }
     }
-} 
\ No newline at end of file
+}
@@ -1,34 +1,53 @@
 package com.weaver.gui;
 
 import com.weaver.controller.WeaverController;
+import com.weaver.model.Lexicon;
+import com.weaver.model.LexiconReloader;
 import com.weaver.model.WeaverGame;
 import com.weaver.view.WeaverView;
 import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
+import java.io.IOException;
+
 /**
  * The main application class of the GUI version
  */
 public class WeaverGuiApplication extends Application {
-    
+    private WeaverView view;
+    private LexiconReloader reloader;
+
     @Override
     public void start(Stage primaryStage) {
         // Create Model
-        WeaverGame model = new WeaverGame("dictionary.txt");
-        
+        // New games pick up edits to the dictionary file, see LexiconReloader
+        reloader = new LexiconReloader(Lexicon.load("dictionary.txt"));
+        try {
+            reloader.watch();
+        } catch (IOException e) {
+            System.err.println("Dictionary changes will not be picked up: " + e.getMessage());
+        }
+        WeaverGame model = new WeaverGame(reloader);
+        model.setWordLength(Integer.getInteger(Lexicon.WORD_LENGTH_PROPERTY, Lexicon.DEFAULT_WORD_LENGTH));
+
         // Create View
-        WeaverView view = new WeaverView();
+        view = new WeaverView();
 
-        // Initializing the game
-        if (model.isUseRandomWords()) {
-            String startWord = model.getRandomWord(4);
-            String targetWord = model.getRandomWord(4);
-            model.initializeGame(startWord, targetWord);
+        // Initializing the game, the fixed puzzle only exists for the classic word length
+        if (model.isUseRandomWords() || model.getWordLength() != Lexicon.DEFAULT_WORD_LENGTH) {
+            model.initializeRandomGame();
         } else {
             model.initializeGame("SOUL", "MATE");
         }
 
+        // Map or build the distance table in the background for par scores
+        if (model.getShard().hasDistanceTable()) {
+            Thread distanceTableLoader = new Thread(model.getShard()::getDistanceTable, "distance-table-loader");
+            distanceTableLoader.setDaemon(true);
+            distanceTableLoader.start();
+        }
+
         // Create Controller
         WeaverController controller = new WeaverController(model, view);
         
@@ -39,6 +58,17 @@ public class WeaverGuiApplication extends Application {
         primaryStage.show();
     }
 
+    @Override
+    public void stop() throws IOException {
+        if (reloader != null) {
+            reloader.close();
+        }
+        if (view != null && view.getRenderCount() > 0) {
+            System.out.printf("History updates: %d, average %.1f us, max %.1f us%n",
+                    view.getRenderCount(), view.getAverageRenderMicros(), view.getMaxRenderMicros());
+        }
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
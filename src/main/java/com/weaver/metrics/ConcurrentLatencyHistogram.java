@@ -0,0 +1,38 @@
+package com.weaver.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe, lock-free counterpart of {@link LatencyHistogram} with the
+ * same log-linear buckets. A record is one atomic add on its bucket and one
+ * on the running total, so any number of threads can share an instance;
+ * {@link #snapshot()} copies the counts into a plain histogram for reading
+ */
+public class ConcurrentLatencyHistogram {
+    private final AtomicLongArray counts = new AtomicLongArray(LatencyHistogram.bucketCount());
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * Record one value
+     * @param value Value, e.g. nanoseconds; negative values count as 0
+     */
+    public void record(long value) {
+        long v = Math.max(value, 0);
+        counts.getAndIncrement(LatencyHistogram.bucketOf(v));
+        total.add(v);
+    }
+
+    /**
+     * Copy of the values recorded so far. Records made while the copy is
+     * taken may or may not be included
+     * @return Histogram
+     */
+    public LatencyHistogram snapshot() {
+        long[] copy = new long[counts.length()];
+        for (int bucket = 0; bucket < copy.length; bucket++) {
+            copy[bucket] = counts.get(bucket);
+        }
+        return LatencyHistogram.ofCounts(copy, total.sum());
+    }
+}
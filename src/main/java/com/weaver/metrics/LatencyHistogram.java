@@ -0,0 +1,141 @@
+package com.weaver.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Log-linear latency histogram in the style of HdrHistogram. Values below
+ * 128 are counted exactly; above that every power of two is split into 64
+ * buckets, so any recorded value is reported within about 1.6% using a
+ * fixed 30 KB of counters and no allocation per record. Not thread-safe:
+ * keep one per thread and {@link #merge} them
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long total;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    /**
+     * Record one value
+     * @param value Value, e.g. nanoseconds; negative values count as 0
+     */
+    public void record(long value) {
+        long v = Math.max(value, 0);
+        counts[bucketOf(v)]++;
+        count++;
+        total += v;
+        min = Math.min(min, v);
+        max = Math.max(max, v);
+    }
+
+    static int bucketOf(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Histogram of bucket counts collected elsewhere, e.g. by a
+     * {@link ConcurrentLatencyHistogram}. Min and max are bucket bounds
+     * @param counts Count per bucket
+     * @param total Sum of the recorded values
+     * @return Histogram
+     */
+    static LatencyHistogram ofCounts(long[] counts, long total) {
+        assert counts.length == BUCKETS : "Bucket counts do not match the histogram layout";
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            long n = counts[bucket];
+            if (n > 0) {
+                histogram.counts[bucket] = n;
+                histogram.count += n;
+                histogram.min = Math.min(histogram.min, bucket == 0 ? 0 : highestValueOf(bucket - 1) + 1);
+                histogram.max = highestValueOf(bucket);
+            }
+        }
+        histogram.total = total;
+        return histogram;
+    }
+
+    static int bucketCount() {
+        return BUCKETS;
+    }
+
+    /**
+     * Largest value that falls into a bucket
+     */
+    static long highestValueOf(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long mantissa = bucket - (long) shift * SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    /**
+     * Value at or below which a given share of the recorded values fall
+     * @param percentile Percentile between 0 and 100, e.g. 99.9
+     * @return Value, 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        assert percentile >= 0 && percentile <= 100 : "Percentile must be between 0 and 100";
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.max(min, Math.min(highestValueOf(bucket), max));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Add all values recorded by another histogram
+     * @param other Histogram to merge in
+     */
+    public void merge(LatencyHistogram other) {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts[bucket] += other.counts[bucket];
+        }
+        count += other.count;
+        total += other.total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        total = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) total / count;
+    }
+}
@@ -0,0 +1,22 @@
+package com.weaver.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of a {@link MetricsRegistry}, readable with jconsole or any JMX
+ * client without extra dependencies
+ */
+public interface MetricsMXBean {
+    /**
+     * Counters and gauges by name, and histograms flattened into
+     * name.count, name.p50, name.p99, name.p999 and name.max
+     * @return Values by metric name
+     */
+    Map<String, Long> getValues();
+
+    /**
+     * The same values as plain text, one "name value" line each
+     * @return Text dump
+     */
+    String getText();
+}
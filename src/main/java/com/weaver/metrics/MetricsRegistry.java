@@ -0,0 +1,96 @@
+package com.weaver.metrics;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * MetricsRegistry holds named counters, gauges and latency histograms.
+ * Instruments are registered once, typically into static fields, and
+ * updated without locks from then on: counters are {@link LongAdder}s and
+ * histograms are {@link ConcurrentLatencyHistogram}s. The default registry
+ * is published over JMX as {@value #OBJECT_NAME}
+ */
+public class MetricsRegistry implements MetricsMXBean {
+    public static final String OBJECT_NAME = "com.weaver:type=Metrics";
+
+    private static final MetricsRegistry DEFAULT = createDefault();
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentLatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    private static MetricsRegistry createDefault() {
+        MetricsRegistry registry = new MetricsRegistry();
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(registry, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            System.err.println("Error registering metrics MBean: " + e.getMessage());
+        }
+        return registry;
+    }
+
+    /**
+     * Registry shared by the whole process and published over JMX
+     * @return Default registry
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Counter of a name, created on first use
+     * @param name Metric name, e.g. game.events.word_accepted
+     * @return Counter
+     */
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Report a value that is read when a snapshot is taken. A later gauge
+     * of the same name replaces this one
+     * @param name Metric name
+     * @param value Source of the current value
+     */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * Latency histogram of a name, created on first use
+     * @param name Metric name, e.g. solver.shortest_path.latency
+     * @return Histogram, recording nanoseconds by convention
+     */
+    public ConcurrentLatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new ConcurrentLatencyHistogram());
+    }
+
+    /**
+     * Current value of every metric
+     * @return Snapshot
+     */
+    public MetricsSnapshot snapshot() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+        Map<String, LatencyHistogram> latencies = new TreeMap<>();
+        histograms.forEach((name, histogram) -> latencies.put(name, histogram.snapshot()));
+        return new MetricsSnapshot(values, latencies);
+    }
+
+    @Override
+    public Map<String, Long> getValues() {
+        return snapshot().toMap();
+    }
+
+    @Override
+    public String getText() {
+        return snapshot().toText();
+    }
+}
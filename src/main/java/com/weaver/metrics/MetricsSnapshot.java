@@ -0,0 +1,77 @@
+package com.weaver.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Point-in-time copy of the metrics of a {@link MetricsRegistry}, sorted by name
+ */
+public class MetricsSnapshot {
+    private final Map<String, Long> values;
+    private final Map<String, LatencyHistogram> histograms;
+
+    MetricsSnapshot(Map<String, Long> values, Map<String, LatencyHistogram> histograms) {
+        this.values = Collections.unmodifiableMap(values);
+        this.histograms = Collections.unmodifiableMap(histograms);
+    }
+
+    /**
+     * Value of a counter or gauge
+     * @param name Metric name
+     * @return Value, 0 if the metric does not exist
+     */
+    public long getValue(String name) {
+        return values.getOrDefault(name, 0L);
+    }
+
+    /**
+     * Histogram of a name
+     * @param name Metric name
+     * @return Histogram, empty if the metric does not exist
+     */
+    public LatencyHistogram getHistogram(String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        return histogram != null ? histogram : new LatencyHistogram();
+    }
+
+    public Map<String, Long> getValues() {
+        return values;
+    }
+
+    public Map<String, LatencyHistogram> getHistograms() {
+        return histograms;
+    }
+
+    /**
+     * Every metric as a flat name to value map, histograms expanded into
+     * count, p50, p99, p999 and max
+     * @return Values sorted by name
+     */
+    public Map<String, Long> toMap() {
+        Map<String, Long> map = new TreeMap<>(values);
+        histograms.forEach((name, histogram) -> {
+            map.put(name + ".count", histogram.getCount());
+            map.put(name + ".p50", histogram.getValueAtPercentile(50));
+            map.put(name + ".p99", histogram.getValueAtPercentile(99));
+            map.put(name + ".p999", histogram.getValueAtPercentile(99.9));
+            map.put(name + ".max", histogram.getMax());
+        });
+        return map;
+    }
+
+    /**
+     * Plain text dump, one "name value" line per metric, easy to scrape or grep
+     * @return Text
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        toMap().forEach((name, value) -> text.append(name).append(' ').append(value).append('\n'));
+        return text.toString();
+    }
+
+    @Override
+    public String toString() {
+        return toText();
+    }
+}
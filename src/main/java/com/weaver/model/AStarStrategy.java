@@ -0,0 +1,125 @@
+package com.weaver.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * A* search guided by the Hamming distance to the target. Every move changes
+ * exactly one letter, so the number of differing letters never overestimates
+ * the remaining steps and the first time the target is popped its path is
+ * optimal. The open set is a binary heap of packed long keys and the closed
+ * set a boolean array, so nothing is boxed
+ */
+public class AStarStrategy implements SearchStrategy {
+    private static final int UNVISITED = -1;
+
+    @Override
+    public String getName() {
+        return "a-star";
+    }
+
+    @Override
+    public SolverResult search(WordGraph graph, int start, int target) {
+        PackedDictionary dictionary = graph.getDictionary();
+        long targetPacked = dictionary.packedAt(target);
+
+        int n = graph.size();
+        int[] parents = new int[n];
+        int[] costs = new int[n];
+        boolean[] closed = new boolean[n];
+        Arrays.fill(parents, UNVISITED);
+        parents[start] = start;
+        costs[start] = 0;
+
+        LongMinHeap open = new LongMinHeap(64);
+        open.push(key(0, heuristic(dictionary.packedAt(start), targetPacked), start));
+        int expanded = 0;
+        int peakFrontier = 1;
+        while (!open.isEmpty()) {
+            int word = (int) open.pop();
+            if (closed[word]) continue; // Stale entry superseded by a cheaper one
+            if (word == target) {
+                return new SolverResult(SearchStrategy.tracePath(graph, parents, target), expanded, peakFrontier, 0);
+            }
+            closed[word] = true;
+            expanded++;
+
+            int cost = costs[word] + 1;
+            for (int e = graph.edgeStart(word), end = graph.edgeEnd(word); e < end; e++) {
+                int neighbour = graph.edgeTarget(e);
+                if (closed[neighbour]) continue;
+                if (parents[neighbour] != UNVISITED && costs[neighbour] <= cost) continue;
+                parents[neighbour] = word;
+                costs[neighbour] = cost;
+                open.push(key(cost, heuristic(dictionary.packedAt(neighbour), targetPacked), neighbour));
+            }
+            peakFrontier = Math.max(peakFrontier, open.size());
+        }
+        return new SolverResult(Collections.emptyList(), expanded, peakFrontier, 0);
+    }
+
+    /**
+     * Admissible estimate of the remaining steps, the same letter difference
+     * WeaverGame uses to validate moves
+     */
+    private static int heuristic(long packed, long targetPacked) {
+        return WordCodec.difference(packed, targetPacked);
+    }
+
+    /**
+     * Heap key ordering by f = g + h, then by smaller h (deeper nodes first), then by ID
+     */
+    private static long key(int cost, int heuristic, int id) {
+        return ((long) (cost + heuristic) << 40) | ((long) heuristic << 32) | id;
+    }
+
+    /**
+     * Minimal binary min-heap over primitive longs
+     */
+    static final class LongMinHeap {
+        private long[] heap;
+        private int size;
+
+        LongMinHeap(int capacity) {
+            heap = new long[capacity];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void push(long value) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= value) break;
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = value;
+        }
+
+        long pop() {
+            long top = heap[0];
+            long last = heap[--size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+                if (last <= heap[child]) break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return top;
+        }
+    }
+}
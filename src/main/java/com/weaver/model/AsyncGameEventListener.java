@@ -0,0 +1,94 @@
+package com.weaver.model;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands events to a listener on its own daemon thread through a bounded
+ * array ring buffer. Publishing never blocks: when the buffer is full the
+ * event is dropped and counted
+ */
+public class AsyncGameEventListener implements GameEventListener, AutoCloseable {
+    private final GameEventListener delegate;
+    private final GameEventBus bus;
+    private final ArrayBlockingQueue<GameUpdate> buffer;
+    private final Thread worker;
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * Constructors
+     * @param delegate Listener called on the delivery thread
+     * @param capacity Ring buffer capacity
+     * @param bus Bus to unsubscribe from on close, or null
+     */
+    AsyncGameEventListener(GameEventListener delegate, int capacity, GameEventBus bus) {
+        assert delegate != null : "Listener cannot be null";
+        assert capacity > 0 : "Capacity must be greater than 0";
+        this.delegate = delegate;
+        this.bus = bus;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.worker = new Thread(this::drain, "game-event-delivery");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void onGameEvent(GameUpdate update) {
+        // The game reuses its update, so the buffer keeps a copy
+        if (closed || !buffer.offer(update.copy())) {
+            dropped.increment();
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!closed || !buffer.isEmpty()) {
+                GameUpdate update = buffer.take();
+                try {
+                    delegate.onGameEvent(update);
+                } catch (RuntimeException e) {
+                    System.err.println("Game event listener failed: " + e);
+                }
+            }
+        } catch (InterruptedException e) {
+            // Closed while waiting for events
+        }
+    }
+
+    /**
+     * Number of events dropped because the buffer was full or the listener closed
+     * @return Dropped events
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Number of events waiting for delivery
+     * @return Pending events
+     */
+    public int getPendingCount() {
+        return buffer.size();
+    }
+
+    /**
+     * Unsubscribe, deliver what is already buffered and stop the delivery thread
+     */
+    @Override
+    public void close() {
+        if (bus != null) {
+            bus.unsubscribe(this);
+        }
+        closed = true;
+        if (buffer.isEmpty()) {
+            worker.interrupt();
+        }
+        try {
+            worker.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        worker.interrupt();
+    }
+}
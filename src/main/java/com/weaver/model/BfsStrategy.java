@@ -0,0 +1,48 @@
+package com.weaver.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * Plain breadth-first search from the start word, stopping as soon as the
+ * target is discovered
+ */
+public class BfsStrategy implements SearchStrategy {
+    private static final int UNVISITED = -1;
+
+    @Override
+    public String getName() {
+        return "bfs";
+    }
+
+    @Override
+    public SolverResult search(WordGraph graph, int start, int target) {
+        int n = graph.size();
+        int[] parents = new int[n];
+        Arrays.fill(parents, UNVISITED);
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        parents[start] = start;
+        queue[tail++] = start;
+
+        int expanded = 0;
+        int peakFrontier = 1;
+        while (head < tail) {
+            int word = queue[head++];
+            expanded++;
+            for (int e = graph.edgeStart(word), end = graph.edgeEnd(word); e < end; e++) {
+                int neighbour = graph.edgeTarget(e);
+                if (parents[neighbour] != UNVISITED) continue;
+                parents[neighbour] = word;
+                if (neighbour == target) {
+                    return new SolverResult(SearchStrategy.tracePath(graph, parents, target), expanded,
+                            Math.max(peakFrontier, tail - head), 0);
+                }
+                queue[tail++] = neighbour;
+            }
+            peakFrontier = Math.max(peakFrontier, tail - head);
+        }
+        return new SolverResult(Collections.emptyList(), expanded, peakFrontier, 0);
+    }
+}
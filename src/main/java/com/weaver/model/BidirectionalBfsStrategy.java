@@ -0,0 +1,91 @@
+package com.weaver.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Breadth-first search from both ends at once, always growing the smaller
+ * frontier by one full level until the two searches meet
+ */
+public class BidirectionalBfsStrategy implements SearchStrategy {
+    private static final int UNVISITED = -1;
+
+    @Override
+    public String getName() {
+        return "bidirectional-bfs";
+    }
+
+    @Override
+    public SolverResult search(WordGraph graph, int start, int target) {
+        // Each side records the word every visited word was reached from
+        int n = graph.size();
+        int[] forwardParents = new int[n];
+        int[] backwardParents = new int[n];
+        Arrays.fill(forwardParents, UNVISITED);
+        Arrays.fill(backwardParents, UNVISITED);
+        forwardParents[start] = start;
+        backwardParents[target] = target;
+
+        int[] forwardFrontier = new int[n];
+        int[] backwardFrontier = new int[n];
+        int[] next = new int[n];
+        forwardFrontier[0] = start;
+        backwardFrontier[0] = target;
+        int forwardSize = 1;
+        int backwardSize = 1;
+
+        int expanded = 0;
+        int peakFrontier = 2;
+        while (forwardSize > 0 && backwardSize > 0) {
+            // Always grow the smaller side to keep the search balanced
+            boolean forward = forwardSize <= backwardSize;
+            int[] frontier = forward ? forwardFrontier : backwardFrontier;
+            int frontierSize = forward ? forwardSize : backwardSize;
+            int otherSize = forward ? backwardSize : forwardSize;
+            int[] parents = forward ? forwardParents : backwardParents;
+            int[] otherParents = forward ? backwardParents : forwardParents;
+
+            int nextSize = 0;
+            for (int i = 0; i < frontierSize; i++) {
+                int word = frontier[i];
+                expanded++;
+                for (int e = graph.edgeStart(word), end = graph.edgeEnd(word); e < end; e++) {
+                    int neighbour = graph.edgeTarget(e);
+                    if (parents[neighbour] != UNVISITED) continue;
+                    parents[neighbour] = word;
+                    if (otherParents[neighbour] != UNVISITED) {
+                        return new SolverResult(joinPaths(graph, neighbour, forwardParents, backwardParents),
+                                expanded, Math.max(peakFrontier, frontierSize - i + nextSize + otherSize), 0);
+                    }
+                    next[nextSize++] = neighbour;
+                }
+                peakFrontier = Math.max(peakFrontier, frontierSize - i - 1 + nextSize + otherSize);
+            }
+
+            // Recycle the expanded frontier array as the next scratch buffer
+            if (forward) {
+                forwardFrontier = next;
+                forwardSize = nextSize;
+            } else {
+                backwardFrontier = next;
+                backwardSize = nextSize;
+            }
+            next = frontier;
+        }
+        return new SolverResult(Collections.emptyList(), expanded, peakFrontier, 0);
+    }
+
+    /**
+     * Join the two half paths at the word where the searches met
+     */
+    private List<String> joinPaths(WordGraph graph, int meeting, int[] forwardParents, int[] backwardParents) {
+        List<String> path = SearchStrategy.tracePath(graph, forwardParents, meeting);
+        int word = meeting;
+        while (backwardParents[word] != word) {
+            word = backwardParents[word];
+            path.add(graph.getWord(word));
+        }
+        return path;
+    }
+}
@@ -0,0 +1,113 @@
+package com.weaver.model;
+
+/**
+ * ComponentIndex labels the connected components of the word graph, so that
+ * whether one word can be transformed into another is a constant-time check
+ */
+public class ComponentIndex {
+    private final int[] componentOf;
+    private final int[] componentSizes;
+    private final int largestSize;
+    private final int isolatedCount;
+
+    /**
+     * Constructors, labelling components with a union-find pass over the edges
+     * @param graph One-letter-neighbour graph of the dictionary
+     */
+    public ComponentIndex(WordGraph graph) {
+        assert graph != null : "Word graph cannot be null";
+
+        int n = graph.size();
+        int[] parent = new int[n];
+        for (int id = 0; id < n; id++) {
+            parent[id] = id;
+        }
+        for (int id = 0; id < n; id++) {
+            for (int e = graph.edgeStart(id), end = graph.edgeEnd(id); e < end; e++) {
+                int a = find(parent, id);
+                int b = find(parent, graph.edgeTarget(e));
+                if (a != b) {
+                    // Link the larger root under the smaller so labels follow word order
+                    parent[Math.max(a, b)] = Math.min(a, b);
+                }
+            }
+        }
+
+        // Number the roots densely in word order
+        componentOf = new int[n];
+        int count = 0;
+        for (int id = 0; id < n; id++) {
+            int root = find(parent, id);
+            componentOf[id] = root == id ? count++ : componentOf[root];
+        }
+        componentSizes = new int[count];
+        for (int id = 0; id < n; id++) {
+            componentSizes[componentOf[id]]++;
+        }
+
+        int largest = 0;
+        int isolated = 0;
+        for (int size : componentSizes) {
+            largest = Math.max(largest, size);
+            if (size == 1) isolated++;
+        }
+        largestSize = largest;
+        isolatedCount = isolated;
+    }
+
+    private static int find(int[] parent, int id) {
+        while (parent[id] != id) {
+            // Path halving keeps the trees flat
+            parent[id] = parent[parent[id]];
+            id = parent[id];
+        }
+        return id;
+    }
+
+    /**
+     * Check if a ladder exists between two words
+     * @param a Word ID
+     * @param b Word ID
+     * @return If both words are in the same component
+     */
+    public boolean isReachable(int a, int b) {
+        return componentOf[a] == componentOf[b];
+    }
+
+    /**
+     * @param id Word ID
+     * @return Component label from 0 to getComponentCount() - 1
+     */
+    public int componentOf(int id) {
+        return componentOf[id];
+    }
+
+    /**
+     * @param id Word ID
+     * @return Number of words reachable from the word, including itself
+     */
+    public int componentSize(int id) {
+        return componentSizes[componentOf[id]];
+    }
+
+    public int getComponentCount() {
+        return componentSizes.length;
+    }
+
+    public int getLargestComponentSize() {
+        return largestSize;
+    }
+
+    /**
+     * @return Number of words without any neighbour
+     */
+    public int getIsolatedWordCount() {
+        return isolatedCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ComponentIndex[%d components, largest %d, %d isolated]",
+                getComponentCount(), largestSize, isolatedCount);
+    }
+}
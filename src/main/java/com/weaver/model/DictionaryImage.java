@@ -0,0 +1,330 @@
+package com.weaver.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * DictionaryImage is the compiled binary form of a dictionary file. A words
+ * image holds every packed word of the file, stamped with the size and
+ * modification time of the file and the checksum of its text, so an
+ * unchanged dictionary is loaded without reading the text at all. A shard
+ * image holds the words of one length and their prebuilt neighbour index,
+ * stamped with the checksum of the text it was compiled from. Images are
+ * memory-mapped on load, so a game can start without parsing the text or
+ * rebuilding the word graph. A second checksum covers the payload, so a
+ * damaged image is rebuilt rather than trusted.
+ * <p>
+ * Shard layout (little endian): magic, version, source CRC32 (long), word
+ * count, edge count, payload CRC32 (long), packed words (long), CSR offsets,
+ * CSR edges.
+ * Words layout: magic, version, source CRC32 (long), source size (long),
+ * source modification time in microseconds (long), word count, skipped
+ * lines, payload CRC32 (long), packed words (long)
+ */
+public final class DictionaryImage {
+    /** System property overriding the directory that holds compiled images */
+    public static final String CACHE_DIR_PROPERTY = "weaver.cache.dir";
+
+    private static final int MAGIC = 0x57565244; // "WVRD"
+    private static final int VERSION = 3;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4 + 8;
+    private static final int WORDS_MAGIC = 0x57565257; // "WVRW"
+    private static final int WORDS_VERSION = 1;
+    private static final int WORDS_HEADER_BYTES = 4 + 4 + 8 + 8 + 8 + 4 + 4 + 8;
+
+    private DictionaryImage() {
+    }
+
+    /**
+     * CRC32 of the dictionary text, used to detect stale images
+     * @param text Raw bytes of the dictionary file
+     * @return Checksum
+     */
+    public static long checksum(byte[] text) {
+        CRC32 crc = new CRC32();
+        crc.update(text);
+        return crc.getValue();
+    }
+
+    /**
+     * Default location of the compiled image for the words of one length
+     * @param dictionaryPath Dictionary resource path
+     * @param wordLength Word length of the shard
+     * @return Image file path
+     */
+    public static Path shardImagePath(String dictionaryPath, int wordLength) {
+        return cacheFile(dictionaryPath, ".len" + wordLength + ".img");
+    }
+
+    /**
+     * Default location of the compiled image of all words of a dictionary
+     * @param dictionaryPath Dictionary resource path
+     * @return Image file path
+     */
+    public static Path wordsImagePath(String dictionaryPath) {
+        return cacheFile(dictionaryPath, ".words.img");
+    }
+
+    /**
+     * File in the cache directory derived from a dictionary resource
+     * @param dictionaryPath Dictionary resource path
+     * @param extension File extension, including the dot
+     * @return Cache file path
+     */
+    public static Path cacheFile(String dictionaryPath, String extension) {
+        String dir = System.getProperty(CACHE_DIR_PROPERTY,
+                Paths.get(System.getProperty("java.io.tmpdir"), "weaver").toString());
+        return Paths.get(dir, dictionaryPath.replaceAll("[^A-Za-z0-9._-]", "_") + extension);
+    }
+
+    /**
+     * Map an image and check it against the dictionary text it should represent
+     * @param image Image file
+     * @param expectedChecksum Checksum of the current dictionary text
+     * @return Word graph, or null if the image is missing, corrupt or stale
+     *         (including a payload that no longer matches its checksum)
+     */
+    public static WordGraph load(Path image, long expectedChecksum) {
+        if (!Files.isRegularFile(image)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(image, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != expectedChecksum) {
+                return null;
+            }
+            int wordCount = buffer.getInt();
+            int edgeCount = buffer.getInt();
+            long payloadChecksum = buffer.getLong();
+            long expectedSize = HEADER_BYTES + 8L * wordCount + 4L * (wordCount + 1 + edgeCount);
+            if (wordCount < 0 || edgeCount < 0 || channel.size() != expectedSize
+                    || payloadChecksum(buffer) != payloadChecksum) {
+                return null;
+            }
+
+            // Bulk copies straight out of the mapping, no parsing involved
+            long[] words = new long[wordCount];
+            buffer.asLongBuffer().get(words);
+            buffer.position(buffer.position() + 8 * wordCount);
+            IntBuffer ints = buffer.asIntBuffer();
+            int[] offsets = new int[wordCount + 1];
+            int[] edges = new int[edgeCount];
+            ints.get(offsets).get(edges);
+            return WordGraph.of(PackedDictionary.ofSorted(words), offsets, edges);
+        } catch (IOException e) {
+            System.err.println("Error reading dictionary image: " + image);
+            return null;
+        }
+    }
+
+    /**
+     * Write an image, replacing any existing one atomically
+     * @param image Image file
+     * @param checksum Checksum of the dictionary text the graph was built from
+     * @param graph Word graph to store
+     * @throws IOException If the image cannot be written
+     */
+    public static void write(Path image, long checksum, WordGraph graph) throws IOException {
+        PackedDictionary dictionary = graph.getDictionary();
+        int wordCount = dictionary.size();
+        int edgeCount = graph.edgeCount();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 8 * wordCount + 4 * (wordCount + 1 + edgeCount))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(checksum).putInt(wordCount).putInt(edgeCount).putLong(0);
+        for (int id = 0; id < wordCount; id++) {
+            buffer.putLong(dictionary.packedAt(id));
+        }
+        for (int id = 0; id <= wordCount; id++) {
+            buffer.putInt(id < wordCount ? graph.edgeStart(id) : edgeCount);
+        }
+        for (int edge = 0; edge < edgeCount; edge++) {
+            buffer.putInt(graph.edgeTarget(edge));
+        }
+        buffer.flip();
+        buffer.putLong(HEADER_BYTES - 8, payloadChecksum(buffer.duplicate().position(HEADER_BYTES)));
+        writeAtomically(image, buffer);
+    }
+
+    /**
+     * Map a words image and check it against the dictionary file it should represent
+     * @param image Image file
+     * @param sourceSize Current size of the dictionary file
+     * @param sourceModified Current modification time of the dictionary file, in microseconds
+     * @return Words, or null if the image is missing, corrupt or stale
+     */
+    static Words loadWords(Path image, long sourceSize, long sourceModified) {
+        if (!Files.isRegularFile(image)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(image, StandardOpenOption.READ)) {
+            if (channel.size() < WORDS_HEADER_BYTES) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != WORDS_MAGIC || buffer.getInt() != WORDS_VERSION) {
+                return null;
+            }
+            long checksum = buffer.getLong();
+            if (buffer.getLong() != sourceSize || buffer.getLong() != sourceModified) {
+                return null;
+            }
+            int wordCount = buffer.getInt();
+            int skippedLines = buffer.getInt();
+            long payloadChecksum = buffer.getLong();
+            if (wordCount < 0 || channel.size() != WORDS_HEADER_BYTES + 8L * wordCount
+                    || payloadChecksum(buffer) != payloadChecksum) {
+                return null;
+            }
+            long[] words = new long[wordCount];
+            buffer.asLongBuffer().get(words);
+            return new Words(checksum, words, skippedLines);
+        } catch (IOException e) {
+            System.err.println("Error reading dictionary image: " + image);
+            return null;
+        }
+    }
+
+    /**
+     * Write a words image, replacing any existing one atomically
+     * @param image Image file
+     * @param sourceSize Size of the dictionary file the words were read from
+     * @param sourceModified Modification time of that file, in microseconds
+     * @param words Words and checksum of the dictionary text
+     * @throws IOException If the image cannot be written
+     */
+    static void writeWords(Path image, long sourceSize, long sourceModified, Words words) throws IOException {
+        long[] packed = words.getWords();
+        ByteBuffer buffer = ByteBuffer.allocate(WORDS_HEADER_BYTES + 8 * packed.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(WORDS_MAGIC).putInt(WORDS_VERSION).putLong(words.getChecksum())
+                .putLong(sourceSize).putLong(sourceModified)
+                .putInt(packed.length).putInt(words.getSkippedLines()).putLong(0);
+        for (long word : packed) {
+            buffer.putLong(word);
+        }
+        buffer.flip();
+        buffer.putLong(WORDS_HEADER_BYTES - 8, payloadChecksum(buffer.duplicate().position(WORDS_HEADER_BYTES)));
+        writeAtomically(image, buffer);
+    }
+
+    private static void writeAtomically(Path image, ByteBuffer buffer) throws IOException {
+        Path dir = image.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, image.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, image, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * CRC32 of the bytes from the buffer's position to its limit, leaving the
+     * buffer untouched
+     */
+    private static long payloadChecksum(ByteBuffer payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        return crc.getValue();
+    }
+
+    /**
+     * Build-time compiler: turns a dictionary resource into its words image
+     * and one image per word length, written to the cache directory the game
+     * loads them from (see {@link #cacheFile}); pass the same
+     * -Dweaver.cache.dir to both
+     * @param args Dictionary resource path
+     */
+    public static void main(String[] args) throws IOException {
+        String dictionaryPath = args.length > 0 ? args[0] : "dictionary.txt";
+
+        Lexicon lexicon;
+        try {
+            // Also writes the words image, unless the file was modified a moment ago
+            lexicon = Lexicon.read(dictionaryPath);
+        } catch (UncheckedIOException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+        System.out.println("Read " + lexicon + ", skipped " + lexicon.getSkippedLines() + " lines");
+        for (int length : lexicon.getWordLengths()) {
+            Path image = shardImagePath(dictionaryPath, length);
+            PackedDictionary dictionary = PackedDictionary.ofSorted(lexicon.wordsOfLength(length));
+            resetPeakHeap();
+            long begin = System.nanoTime();
+            WordGraph graph = WordGraph.build(dictionary);
+            System.out.printf("Built length %d in %.1f ms, peak heap %.1f MB%n",
+                    length, (System.nanoTime() - begin) / 1e6, peakHeapBytes() / (double) (1 << 20));
+            write(image, lexicon.getChecksum(), graph);
+            System.out.println("Wrote " + graph + " to " + image);
+        }
+    }
+
+    /**
+     * Words of a whole dictionary with the checksum of its text, as stored in a words image
+     */
+    static final class Words {
+        private final long checksum;
+        private final long[] words;
+        private final int skippedLines;
+
+        Words(long checksum, long[] words, int skippedLines) {
+            this.checksum = checksum;
+            this.words = words;
+            this.skippedLines = skippedLines;
+        }
+
+        long getChecksum() {
+            return checksum;
+        }
+
+        long[] getWords() {
+            return words;
+        }
+
+        int getSkippedLines() {
+            return skippedLines;
+        }
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * Peak heap use since the last reset, summed over the heap pools. The
+     * pools peak at different moments, so this is an upper bound
+     */
+    private static long peakHeapBytes() {
+        long bytes = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                bytes += pool.getPeakUsage().getUsed();
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,26 @@
+package com.weaver.model;
+
+/**
+ * Difficulty levels for random puzzles, as bands of optimal ladder length
+ */
+public enum Difficulty {
+    EASY(2, 3),
+    MEDIUM(4, 5),
+    HARD(6, Integer.MAX_VALUE);
+
+    private final int minSteps;
+    private final int maxSteps;
+
+    Difficulty(int minSteps, int maxSteps) {
+        this.minSteps = minSteps;
+        this.maxSteps = maxSteps;
+    }
+
+    public int getMinSteps() {
+        return minSteps;
+    }
+
+    public int getMaxSteps() {
+        return maxSteps;
+    }
+}
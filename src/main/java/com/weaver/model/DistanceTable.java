@@ -0,0 +1,185 @@
+package com.weaver.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * DistanceTable holds the optimal ladder length between every pair of words,
+ * one byte per pair, so par scores and remaining steps are single lookups.
+ * The table is built with one breadth-first search per word in parallel,
+ * persisted next to the dictionary image and memory-mapped on later starts.
+ * <p>
+ * File layout (little endian): magic, version, source CRC32 (long), word count,
+ * then the row-major distance matrix
+ */
+public class DistanceTable {
+    /** Returned by {@link #distance(int, int)} for words without a ladder between them */
+    public static final int UNREACHABLE = -1;
+    /** Largest shard given a table, whose matrix then takes 64 MB; larger shards search instead */
+    public static final int MAX_WORDS = 8192;
+
+    private static final int MAGIC = 0x57564454; // "WVDT"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    // Distances are unsigned bytes; the largest value marks pairs without a ladder
+    private static final int MAX_DISTANCE = 0xFF;
+    private static final byte NO_PATH = (byte) MAX_DISTANCE;
+
+    private final ByteBuffer distances;
+    private final int size;
+
+    private DistanceTable(ByteBuffer distances, int size) {
+        this.distances = distances;
+        this.size = size;
+    }
+
+    /**
+     * Check if a table may be built for a number of words
+     * @param words Number of words
+     * @return If the words are at most MAX_WORDS
+     */
+    public static boolean fits(int words) {
+        return words <= MAX_WORDS;
+    }
+
+    /**
+     * Map a persisted table if it matches the dictionary, otherwise build it and persist it
+     * @param graph Word graph
+     * @param checksum Checksum of the dictionary text the graph was built from
+     * @param file Table file
+     * @return Distance table, or null if the graph has more than MAX_WORDS words
+     *         or a ladder too long for a byte
+     */
+    public static DistanceTable loadOrBuild(WordGraph graph, long checksum, Path file) {
+        if (!fits(graph.size())) {
+            return null;
+        }
+        DistanceTable table = load(file, checksum, graph.size());
+        if (table != null) {
+            return table;
+        }
+        byte[] matrix;
+        try {
+            matrix = buildMatrix(graph);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error building distance table: " + e.getMessage());
+            return null;
+        }
+        try {
+            write(file, checksum, graph.size(), matrix);
+            table = load(file, checksum, graph.size());
+        } catch (IOException e) {
+            System.err.println("Error writing distance table: " + file);
+        }
+        return table != null ? table : new DistanceTable(ByteBuffer.wrap(matrix), graph.size());
+    }
+
+    /**
+     * Build a table in memory without persisting it
+     * @param graph Word graph
+     * @return Distance table
+     * @throws IllegalArgumentException If the graph has more than MAX_WORDS words
+     *                                  or a ladder of MAX_DISTANCE steps or more
+     */
+    public static DistanceTable build(WordGraph graph) {
+        return new DistanceTable(ByteBuffer.wrap(buildMatrix(graph)), graph.size());
+    }
+
+    private static byte[] buildMatrix(WordGraph graph) {
+        int n = graph.size();
+        if (!fits(n)) {
+            throw new IllegalArgumentException("Too many words for a distance table: " + n);
+        }
+
+        byte[] matrix = new byte[n * n];
+        Arrays.fill(matrix, NO_PATH);
+        IntStream.range(0, n).parallel().forEach(source -> {
+            int row = source * n;
+            int[] queue = new int[n];
+            int head = 0;
+            int tail = 0;
+            matrix[row + source] = 0;
+            queue[tail++] = source;
+            while (head < tail) {
+                int word = queue[head++];
+                int d = (matrix[row + word] & 0xFF) + 1;
+                if (d >= MAX_DISTANCE) {
+                    throw new IllegalArgumentException("Ladder too long for a distance table: " + d);
+                }
+                for (int e = graph.edgeStart(word), end = graph.edgeEnd(word); e < end; e++) {
+                    int neighbour = graph.edgeTarget(e);
+                    if (matrix[row + neighbour] != NO_PATH) continue;
+                    matrix[row + neighbour] = (byte) d;
+                    queue[tail++] = neighbour;
+                }
+            }
+        });
+        return matrix;
+    }
+
+    private static DistanceTable load(Path file, long expectedChecksum, int expectedSize) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != HEADER_BYTES + (long) expectedSize * expectedSize) {
+                return null;
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION
+                    || header.getLong() != expectedChecksum || header.getInt() != expectedSize) {
+                return null;
+            }
+            // The mapping stays valid after the channel is closed
+            ByteBuffer matrix = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES,
+                    (long) expectedSize * expectedSize);
+            return new DistanceTable(matrix, expectedSize);
+        } catch (IOException e) {
+            System.err.println("Error reading distance table: " + file);
+            return null;
+        }
+    }
+
+    private static void write(Path file, long checksum, int size, byte[] matrix) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putLong(checksum).putInt(size).flip();
+        ByteBuffer body = ByteBuffer.wrap(matrix);
+
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Optimal ladder length between two words
+     * @param a Word ID
+     * @param b Word ID
+     * @return Number of steps, or UNREACHABLE
+     */
+    public int distance(int a, int b) {
+        int d = distances.get(a * size + b) & 0xFF;
+        return d == MAX_DISTANCE ? UNREACHABLE : d;
+    }
+
+    public int size() {
+        return size;
+    }
+}
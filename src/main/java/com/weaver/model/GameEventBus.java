@@ -0,0 +1,94 @@
+package com.weaver.model;
+
+import java.util.Arrays;
+
+/**
+ * Typed publish/subscribe for game events. Listeners subscribe per event
+ * type and each type keeps its own copy-on-write listener array, so
+ * publishing walks only the interested listeners without locking, and a
+ * publisher can skip building the payload when {@link #hasSubscribers}
+ * is false
+ */
+public class GameEventBus {
+    private static final WeaverGame.GameEvent[] ALL_EVENTS = WeaverGame.GameEvent.values();
+    private static final GameEventListener[] NONE = new GameEventListener[0];
+
+    // Indexed by event ordinal; the outer array is replaced on every change
+    private volatile GameEventListener[][] listeners;
+
+    public GameEventBus() {
+        GameEventListener[][] initial = new GameEventListener[ALL_EVENTS.length][];
+        Arrays.fill(initial, NONE);
+        this.listeners = initial;
+    }
+
+    /**
+     * Deliver events on the publishing thread
+     * @param listener Listener
+     * @param events Event types to receive, all types if none are given
+     */
+    public synchronized void subscribe(GameEventListener listener, WeaverGame.GameEvent... events) {
+        assert listener != null : "Listener cannot be null";
+        GameEventListener[][] next = listeners.clone();
+        for (WeaverGame.GameEvent event : events.length == 0 ? ALL_EVENTS : events) {
+            GameEventListener[] current = next[event.ordinal()];
+            if (Arrays.asList(current).contains(listener)) continue;
+            GameEventListener[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = listener;
+            next[event.ordinal()] = grown;
+        }
+        listeners = next;
+    }
+
+    /**
+     * Deliver events on a dedicated thread through a bounded ring buffer, so
+     * a slow listener never stalls the game. Events that do not fit are dropped
+     * @param listener Listener, called on the delivery thread
+     * @param capacity Ring buffer capacity
+     * @param events Event types to receive, all types if none are given
+     * @return Asynchronous adapter; close it to unsubscribe and stop the thread
+     */
+    public AsyncGameEventListener subscribeAsync(GameEventListener listener, int capacity,
+                                                 WeaverGame.GameEvent... events) {
+        AsyncGameEventListener async = new AsyncGameEventListener(listener, capacity, this);
+        subscribe(async, events);
+        return async;
+    }
+
+    /**
+     * Stop delivering any events to a listener
+     * @param listener Listener passed to subscribe
+     */
+    public synchronized void unsubscribe(GameEventListener listener) {
+        GameEventListener[][] next = listeners.clone();
+        for (int i = 0; i < next.length; i++) {
+            GameEventListener[] current = next[i];
+            int index = Arrays.asList(current).indexOf(listener);
+            if (index < 0) continue;
+            GameEventListener[] shrunk = new GameEventListener[current.length - 1];
+            System.arraycopy(current, 0, shrunk, 0, index);
+            System.arraycopy(current, index + 1, shrunk, index, shrunk.length - index);
+            next[i] = shrunk;
+        }
+        listeners = next;
+    }
+
+    /**
+     * Check if anyone listens to an event type
+     * @param event Event type
+     * @return If at least one listener is subscribed
+     */
+    public boolean hasSubscribers(WeaverGame.GameEvent event) {
+        return listeners[event.ordinal()].length > 0;
+    }
+
+    /**
+     * Deliver an event to its subscribers in subscription order
+     * @param update Event
+     */
+    public void publish(GameUpdate update) {
+        for (GameEventListener listener : listeners[update.getEvent().ordinal()]) {
+            listener.onGameEvent(update);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.weaver.model;
+
+/**
+ * Receives game events from a {@link GameEventBus}
+ */
+@FunctionalInterface
+public interface GameEventListener {
+    /**
+     * Handle one event
+     * @param update Event type and payload
+     */
+    void onGameEvent(GameUpdate update);
+}
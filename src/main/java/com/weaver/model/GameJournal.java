@@ -0,0 +1,541 @@
+package com.weaver.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * GameJournal is an append-only binary log of game sessions: every
+ * initializeGame and every accepted move, as word IDs within the lexicon
+ * shard of the game's word length. Appends only copy the record into a
+ * memory buffer; a committer thread writes the buffer through a FileChannel
+ * and forces it to disk every commit interval, so many moves share one
+ * fsync and no move waits for the disk.
+ * <p>
+ * Layout (little endian): magic, version, dictionary CRC32 (long), then
+ * records of payload length, payload CRC32 and payload. A torn record at
+ * the end of the file, left by a crash, is ignored on replay and truncated
+ * when the journal is reopened. Files are read in fixed-size chunks, so
+ * their size is not limited by a buffer or a mapping.
+ * <p>
+ * Only the last game of each session matters for recovery, so when the file
+ * grows past a size limit it is compacted: rewritten with each session's
+ * last game start and the moves after it, then swapped in atomically
+ */
+public class GameJournal implements AutoCloseable {
+    /** Default time between group commits; a crash loses at most this much */
+    public static final int DEFAULT_COMMIT_INTERVAL_MILLIS = 10;
+
+    private static final int MAGIC = 0x57564a4c; // "WVJL"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 4 + 4 + 8;
+    private static final int RECORD_HEADER_BYTES = 4 + 4;
+    private static final byte GAME_INITIALIZED = 1;
+    private static final byte WORD_ACCEPTED = 2;
+    private static final int INITIALIZED_BYTES = 1 + 8 + 1 + 4 + 4;
+    private static final int ACCEPTED_BYTES = 1 + 8 + 4;
+    private static final int MAX_PAYLOAD_BYTES = INITIALIZED_BYTES;
+    private static final int BUFFER_BYTES = 1 << 20;
+    private static final int SCAN_BUFFER_BYTES = 1 << 16;
+    /** Default file size that triggers a compaction */
+    public static final long DEFAULT_MAX_BYTES = 64L << 20;
+
+    /**
+     * Receives journal records in the order they were written
+     */
+    public interface Listener {
+        /**
+         * A game was started or restarted
+         * @param session Session ID
+         * @param length Word length, selecting the lexicon shard the word IDs belong to
+         * @param start Start word ID
+         * @param target Target word ID
+         */
+        void onGameInitialized(long session, int length, int start, int target);
+
+        /**
+         * A move was accepted
+         * @param session Session ID
+         * @param word Word ID
+         */
+        void onWordAccepted(long session, int word);
+    }
+
+    private final Path file;
+    private final long checksum;
+    private final long maxBytes;
+    // Replaced by compactions; guarded by commitLock
+    private FileChannel channel;
+    private long compactAt;
+    private int compactionCount;
+    private final int commitIntervalMillis;
+    private final CRC32 crc = new CRC32();
+    private final Object lock = new Object();
+    private final Object commitLock = new Object();
+    private final Thread committer;
+    // Appends go to the active buffer while the committer writes the other one
+    private ByteBuffer active;
+    private ByteBuffer standby;
+    private boolean commitRequested;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    /**
+     * Open a journal for appending, creating it if needed
+     * @param file Journal file
+     * @param checksum Dictionary checksum, see {@link Lexicon#getChecksum()}
+     * @param commitIntervalMillis Time between group commits
+     * @throws IOException If the file cannot be opened or belongs to another dictionary
+     */
+    public GameJournal(Path file, long checksum, int commitIntervalMillis) throws IOException {
+        this(file, checksum, commitIntervalMillis, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Open a journal for appending, creating it if needed
+     * @param file Journal file
+     * @param checksum Dictionary checksum, see {@link Lexicon#getChecksum()}
+     * @param commitIntervalMillis Time between group commits
+     * @param maxBytes File size past which the journal is compacted
+     * @throws IOException If the file cannot be opened or belongs to another dictionary
+     */
+    public GameJournal(Path file, long checksum, int commitIntervalMillis, long maxBytes) throws IOException {
+        assert commitIntervalMillis > 0 : "Commit interval must be greater than 0";
+        assert maxBytes > HEADER_BYTES : "Size limit is smaller than the journal header";
+        this.file = file;
+        this.checksum = checksum;
+        this.maxBytes = maxBytes;
+        this.compactAt = maxBytes;
+        this.commitIntervalMillis = commitIntervalMillis;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION).putLong(checksum).flip();
+                channel.write(header);
+                channel.force(true);
+            } else {
+                // Drop a torn tail so new records follow the last complete one. The
+                // scan reads instead of mapping: a file cannot be truncated while mapped on Windows
+                long end = scan(channel, checksum, null);
+                channel.truncate(end);
+                channel.position(end);
+                if (end > maxBytes) {
+                    compact();
+                }
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        this.active = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        this.standby = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        this.committer = new Thread(this::commitLoop, "game-journal-commit");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    /**
+     * Record a game start
+     * @param session Session ID
+     * @param length Word length of the game
+     * @param start Start word ID
+     * @param target Target word ID
+     */
+    public void logGameInitialized(long session, int length, int start, int target) {
+        synchronized (lock) {
+            ByteBuffer buffer = reserve(INITIALIZED_BYTES);
+            int payload = buffer.position() + RECORD_HEADER_BYTES;
+            buffer.putInt(INITIALIZED_BYTES).putInt(0)
+                    .put(GAME_INITIALIZED).putLong(session).put((byte) length).putInt(start).putInt(target);
+            sealRecord(buffer, payload, INITIALIZED_BYTES);
+        }
+    }
+
+    /**
+     * Record an accepted move
+     * @param session Session ID
+     * @param word Word ID
+     */
+    public void logWordAccepted(long session, int word) {
+        synchronized (lock) {
+            ByteBuffer buffer = reserve(ACCEPTED_BYTES);
+            int payload = buffer.position() + RECORD_HEADER_BYTES;
+            buffer.putInt(ACCEPTED_BYTES).putInt(0).put(WORD_ACCEPTED).putLong(session).putInt(word);
+            sealRecord(buffer, payload, ACCEPTED_BYTES);
+        }
+    }
+
+    /**
+     * Wait until the active buffer has room for a record. Called holding the lock
+     */
+    private ByteBuffer reserve(int payloadBytes) {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        while (active.remaining() < RECORD_HEADER_BYTES + payloadBytes) {
+            commitRequested = true;
+            lock.notifyAll();
+            try {
+                lock.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the journal", e);
+            }
+        }
+        return active;
+    }
+
+    private void sealRecord(ByteBuffer buffer, int payload, int payloadBytes) {
+        seal(crc, buffer, payload, payloadBytes);
+    }
+
+    private void commitLoop() {
+        while (!closed) {
+            synchronized (lock) {
+                if (!commitRequested && !closed) {
+                    try {
+                        lock.wait(commitIntervalMillis);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                commitRequested = false;
+            }
+            try {
+                commit();
+            } catch (IOException e) {
+                failure = e;
+                System.err.println("Error writing game journal: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Swap the buffers, then write and force the full one outside the append lock
+     */
+    private void commit() throws IOException {
+        synchronized (commitLock) {
+            ByteBuffer full;
+            synchronized (lock) {
+                if (active.position() == 0) {
+                    return;
+                }
+                full = active;
+                active = standby;
+                standby = null;
+                lock.notifyAll();
+            }
+            try {
+                full.flip();
+                while (full.hasRemaining()) {
+                    channel.write(full);
+                }
+                channel.force(false);
+            } finally {
+                full.clear();
+                synchronized (lock) {
+                    standby = full;
+                }
+            }
+            if (channel.size() > compactAt) {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Rewrite the file with the last game of every session, then swap it in.
+     * Appends carry on into the buffers meanwhile. Called holding the commit lock
+     */
+    private void compact() throws IOException {
+        Map<Long, SessionLog> sessions = new LinkedHashMap<>();
+        scan(channel, checksum, new Listener() {
+            @Override
+            public void onGameInitialized(long session, int length, int start, int target) {
+                sessions.computeIfAbsent(session, id -> new SessionLog()).restart(length, start, target);
+            }
+
+            @Override
+            public void onWordAccepted(long session, int word) {
+                SessionLog log = sessions.get(session);
+                if (log != null) {
+                    log.add(word);
+                }
+            }
+        });
+
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(checksum);
+            CRC32 crc = new CRC32();
+            for (Map.Entry<Long, SessionLog> entry : sessions.entrySet()) {
+                long session = entry.getKey();
+                SessionLog log = entry.getValue();
+                buffer = drainIfFull(out, buffer);
+                int payload = buffer.position() + RECORD_HEADER_BYTES;
+                buffer.putInt(INITIALIZED_BYTES).putInt(0)
+                        .put(GAME_INITIALIZED).putLong(session).put((byte) log.length).putInt(log.start).putInt(log.target);
+                seal(crc, buffer, payload, INITIALIZED_BYTES);
+                for (int i = 0; i < log.moveCount; i++) {
+                    buffer = drainIfFull(out, buffer);
+                    payload = buffer.position() + RECORD_HEADER_BYTES;
+                    buffer.putInt(ACCEPTED_BYTES).putInt(0).put(WORD_ACCEPTED).putLong(session).putInt(log.moves[i]);
+                    seal(crc, buffer, payload, ACCEPTED_BYTES);
+                }
+            }
+            write(out, buffer.flip());
+            out.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        // Windows cannot replace a file that is still open
+        channel.close();
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        } finally {
+            // Reopen whichever file is in place, so appends carry on either way
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+        }
+        long size = channel.size();
+        // Live sessions alone may fill the limit; wait until the file has doubled again
+        compactAt = Math.max(maxBytes, 2 * size);
+        compactionCount++;
+    }
+
+    private static ByteBuffer drainIfFull(FileChannel out, ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < RECORD_HEADER_BYTES + MAX_PAYLOAD_BYTES) {
+            write(out, buffer.flip());
+            buffer.clear();
+        }
+        return buffer;
+    }
+
+    private static void write(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static void seal(CRC32 crc, ByteBuffer buffer, int payload, int payloadBytes) {
+        crc.reset();
+        crc.update(buffer.slice(payload, payloadBytes));
+        buffer.putInt(payload - 4, (int) crc.getValue());
+    }
+
+    /**
+     * Last game of a session, gathered by a compaction
+     */
+    private static class SessionLog {
+        private int length;
+        private int start;
+        private int target;
+        private int[] moves = new int[8];
+        private int moveCount;
+
+        void restart(int length, int start, int target) {
+            this.length = length;
+            this.start = start;
+            this.target = target;
+            this.moveCount = 0;
+        }
+
+        void add(int word) {
+            if (moveCount == moves.length) {
+                moves = Arrays.copyOf(moves, moveCount * 2);
+            }
+            moves[moveCount++] = word;
+        }
+    }
+
+    /**
+     * Number of times the file was compacted since it was opened
+     * @return Compaction count
+     */
+    public int getCompactionCount() {
+        synchronized (commitLock) {
+            return compactionCount;
+        }
+    }
+
+    /**
+     * Write and force everything appended so far
+     * @throws IOException If a write failed, now or in an earlier group commit
+     */
+    public void flush() throws IOException {
+        commit();
+        IOException error = failure;
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Commit what is buffered and close the file
+     */
+    @Override
+    public void close() throws IOException {
+        // Wake the committer rather than interrupt it: an interrupt during a
+        // write or force closes the channel
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush();
+        } finally {
+            synchronized (commitLock) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Read every complete record of a journal, in order
+     * @param file Journal file
+     * @param checksum Dictionary checksum the word IDs must belong to
+     * @param listener Receives the records
+     * @return Number of records read
+     * @throws IOException If the file cannot be read or belongs to another dictionary
+     */
+    public static long replay(Path file, long checksum, Listener listener) throws IOException {
+        assert listener != null : "Listener cannot be null";
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] records = new long[1];
+            scan(channel, checksum, new Listener() {
+                @Override
+                public void onGameInitialized(long session, int length, int start, int target) {
+                    records[0]++;
+                    listener.onGameInitialized(session, length, start, target);
+                }
+
+                @Override
+                public void onWordAccepted(long session, int word) {
+                    records[0]++;
+                    listener.onWordAccepted(session, word);
+                }
+            });
+            return records[0];
+        }
+    }
+
+    /**
+     * Rebuild every journaled session as a game in its last recorded state
+     * @param file Journal file
+     * @param lexicon Dictionary the journal was written with
+     * @return Games by session ID
+     * @throws IOException If the file cannot be read or belongs to another dictionary
+     */
+    public static Map<Long, WeaverGame> recover(Path file, Lexicon lexicon) throws IOException {
+        Map<Long, WeaverGame> games = new HashMap<>();
+        replay(file, lexicon.getChecksum(), new Listener() {
+            @Override
+            public void onGameInitialized(long session, int length, int start, int target) {
+                games.computeIfAbsent(session, id -> new WeaverGame(lexicon)).restoreGame(length, start, target);
+            }
+
+            @Override
+            public void onWordAccepted(long session, int word) {
+                WeaverGame game = games.get(session);
+                if (game != null) {
+                    game.restoreMove(word);
+                }
+            }
+        });
+        return games;
+    }
+
+    /**
+     * Scan the records of a journal, reading it in chunks
+     * @param channel Open journal file
+     * @param listener Receives the records, or null to only validate
+     * @return Byte offset just after the last complete record
+     */
+    private static long scan(FileChannel channel, long checksum, Listener listener) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN).flip();
+        // File offset of the buffer position
+        long offset = 0;
+        refill(channel, buffer, offset);
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Not a game journal");
+        }
+        if (buffer.getLong() != checksum) {
+            throw new IOException("Game journal was written with a different dictionary");
+        }
+        offset += HEADER_BYTES;
+
+        CRC32 crc = new CRC32();
+        while (true) {
+            if (buffer.remaining() < RECORD_HEADER_BYTES + MAX_PAYLOAD_BYTES) {
+                refill(channel, buffer, offset);
+            }
+            if (buffer.remaining() < RECORD_HEADER_BYTES) {
+                return offset;
+            }
+            int length = buffer.getInt();
+            int expectedCrc = buffer.getInt();
+            if (length <= 0 || length > MAX_PAYLOAD_BYTES || length > buffer.remaining()) {
+                return offset;
+            }
+            crc.reset();
+            crc.update(buffer.slice(buffer.position(), length));
+            if ((int) crc.getValue() != expectedCrc) {
+                return offset;
+            }
+            byte type = buffer.get();
+            long session = buffer.getLong();
+            if (type == GAME_INITIALIZED && length == INITIALIZED_BYTES) {
+                int wordLength = buffer.get();
+                int startWord = buffer.getInt();
+                int targetWord = buffer.getInt();
+                if (listener != null) listener.onGameInitialized(session, wordLength, startWord, targetWord);
+            } else if (type == WORD_ACCEPTED && length == ACCEPTED_BYTES) {
+                int word = buffer.getInt();
+                if (listener != null) listener.onWordAccepted(session, word);
+            } else {
+                return offset;
+            }
+            offset += RECORD_HEADER_BYTES + length;
+        }
+    }
+
+    /**
+     * Keep the unread bytes of the buffer and read on from the file after them
+     * @param offset File offset of the buffer position
+     */
+    private static void refill(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        buffer.compact();
+        long position = offset + buffer.position();
+        int read;
+        while (buffer.hasRemaining() && (read = channel.read(buffer, position)) > 0) {
+            position += read;
+        }
+        buffer.flip();
+    }
+}
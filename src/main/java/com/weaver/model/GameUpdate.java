@@ -0,0 +1,107 @@
+package com.weaver.model;
+
+/**
+ * Payload of a game event. Rejections carry the attempted word as typed, all
+ * other events the game's current word in lower case. A game reuses one
+ * update for all the events it publishes and keeps the word packed until
+ * {@link #getWord()} decodes it, so delivering an event allocates nothing.
+ * The update is therefore only valid during the listener call; use
+ * {@link #copy()} to keep it
+ */
+public final class GameUpdate {
+    private WeaverGame.GameEvent event;
+    private String attempt;
+    private long packedWord;
+    private int steps;
+
+    /**
+     * Constructors
+     * @param event Event type
+     * @param word Word the event is about, null if the game has not started
+     * @param steps Moves accepted so far
+     */
+    public GameUpdate(WeaverGame.GameEvent event, String word, int steps) {
+        assert event != null : "Event cannot be null";
+        set(event, word, WordCodec.INVALID, steps);
+    }
+
+    /**
+     * Reusable update, filled by {@link #set} before each event
+     */
+    GameUpdate() {
+    }
+
+    /**
+     * Refill the update for the next event
+     * @param event Event type
+     * @param attempt Rejected word as typed, or null
+     * @param packedWord Current word packed, or INVALID if there is none or attempt is given
+     * @param steps Moves accepted so far
+     * @return This update
+     */
+    GameUpdate set(WeaverGame.GameEvent event, String attempt, long packedWord, int steps) {
+        this.event = event;
+        this.attempt = attempt;
+        this.packedWord = packedWord;
+        this.steps = steps;
+        return this;
+    }
+
+    /**
+     * Snapshot that stays valid after the listener returns, e.g. to hand
+     * the event to another thread
+     * @return New update with the same content
+     */
+    public GameUpdate copy() {
+        return new GameUpdate().set(event, attempt, packedWord, steps);
+    }
+
+    public WeaverGame.GameEvent getEvent() {
+        return event;
+    }
+
+    /**
+     * Accepted or winning word, the start word on initialization, or the
+     * rejected attempt. Decoded on every call
+     * @return Word
+     */
+    public String getWord() {
+        if (attempt != null) {
+            return attempt;
+        }
+        return packedWord != WordCodec.INVALID ? WordCodec.unpack(packedWord) : null;
+    }
+
+    /**
+     * The game's current word without decoding it
+     * @return Packed word, see {@link WordCodec}, or INVALID for rejections
+     *         and before the game has started
+     */
+    public long getPackedWord() {
+        return attempt != null ? WordCodec.INVALID : packedWord;
+    }
+
+    public int getSteps() {
+        return steps;
+    }
+
+    /**
+     * Check if the event reports a rejected move; the event type is the reason
+     * @return If rejected
+     */
+    public boolean isRejection() {
+        switch (event) {
+            case INVALID_LENGTH:
+            case INVALID_DIFFERENCE:
+            case NOT_IN_DICTIONARY:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return event + "(" + getWord() + ", steps=" + steps + ")";
+    }
+}
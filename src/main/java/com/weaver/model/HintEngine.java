@@ -0,0 +1,139 @@
+package com.weaver.model;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HintEngine answers "which word should I play next" for any target word.
+ * For each target it keeps a breadth-first search tree rooted at the target,
+ * stored as one next-hop pointer per word, so a hint on a cached target is a
+ * single array lookup. Trees are kept in a small LRU cache keyed by target ID
+ */
+public class HintEngine {
+    /** Default number of cached target trees, about 16 KB each for 4k words */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private static final int NO_HOP = -1;
+    private static final int EMPTY = -1;
+
+    private final WordGraph graph;
+    private final int[] targets;
+    private final int[][] trees;
+    private final long[] lastUsed;
+    private long clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructors
+     * @param graph One-letter-neighbour graph of the dictionary
+     * @param capacity Maximum number of cached target trees
+     */
+    public HintEngine(WordGraph graph, int capacity) {
+        assert graph != null : "Word graph cannot be null";
+        assert capacity > 0 : "Cache capacity must be greater than 0";
+        this.graph = graph;
+        this.targets = new int[capacity];
+        this.trees = new int[capacity][];
+        this.lastUsed = new long[capacity];
+        Arrays.fill(targets, EMPTY);
+    }
+
+    /**
+     * Best next word on an optimal ladder from the current word to the target
+     * @param current Current word ID
+     * @param target Target word ID
+     * @return Word ID of the next step, or -1 if the target is reached or unreachable
+     */
+    public int nextStep(int current, int target) {
+        if (current == target) {
+            return NO_HOP;
+        }
+        return tree(target)[current];
+    }
+
+    private int[] tree(int target) {
+        synchronized (this) {
+            for (int slot = 0; slot < targets.length; slot++) {
+                if (targets[slot] == target) {
+                    lastUsed[slot] = ++clock;
+                    hits.increment();
+                    return trees[slot];
+                }
+            }
+        }
+        misses.increment();
+
+        // Build outside the lock so other targets stay served meanwhile
+        int[] tree = buildTree(target);
+        synchronized (this) {
+            int victim = 0;
+            for (int slot = 0; slot < targets.length; slot++) {
+                if (targets[slot] == target) {
+                    // Another thread built the same tree first
+                    lastUsed[slot] = ++clock;
+                    return trees[slot];
+                }
+                if (lastUsed[slot] < lastUsed[victim]) {
+                    victim = slot;
+                }
+            }
+            if (targets[victim] != EMPTY) {
+                evictions.increment();
+            }
+            targets[victim] = target;
+            trees[victim] = tree;
+            lastUsed[victim] = ++clock;
+        }
+        return tree;
+    }
+
+    /**
+     * Breadth-first search from the target; every reached word points at the
+     * neighbour it was discovered from, which is one step closer to the target
+     */
+    private int[] buildTree(int target) {
+        int n = graph.size();
+        int[] next = new int[n];
+        Arrays.fill(next, NO_HOP);
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        next[target] = target;
+        queue[tail++] = target;
+        while (head < tail) {
+            int word = queue[head++];
+            for (int e = graph.edgeStart(word), end = graph.edgeEnd(word); e < end; e++) {
+                int neighbour = graph.edgeTarget(e);
+                if (next[neighbour] != NO_HOP) continue;
+                next[neighbour] = word;
+                queue[tail++] = neighbour;
+            }
+        }
+        return next;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int getCapacity() {
+        return targets.length;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("HintEngine[capacity %d, %d hits, %d misses, %d evictions]",
+                getCapacity(), getHits(), getMisses(), getEvictions());
+    }
+}
@@ -0,0 +1,329 @@
+package com.weaver.model;
+
+import com.weaver.metrics.ConcurrentLatencyHistogram;
+import com.weaver.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+/**
+ * Lexicon is the immutable, thread-safe dictionary shared by all game sessions.
+ * It is loaded once per dictionary path and then reused by every
+ * {@link WeaverGame}. Loading only parses the sorted packed words; the word
+ * graph and its indexes are sharded by word length and each shard is built
+ * the first time a game of that length needs it, so memory and start-up time
+ * grow with the lengths actually played. When the dictionary is a file whose
+ * size and modification time match its words image, the text is not read at all
+ */
+public final class Lexicon {
+    /** Word length of the classic game */
+    public static final int DEFAULT_WORD_LENGTH = 4;
+    /** System property choosing the word length of the GUI and CLI games */
+    public static final String WORD_LENGTH_PROPERTY = "weaver.word.length";
+
+    private static final Map<String, Lexicon> CACHE = new ConcurrentHashMap<>();
+    private static final ConcurrentLatencyHistogram READ_LATENCY =
+            MetricsRegistry.getDefault().histogram("dictionary.read.latency");
+    private static final LongAdder SKIPPED_LINES = MetricsRegistry.getDefault().counter("dictionary.skipped_lines");
+    // A file modified this recently may change again within the same timestamp tick,
+    // so its words image could not tell the two versions apart
+    private static final long SETTLED_MICROS = TimeUnit.SECONDS.toMicros(2);
+
+    private final String path;
+    private final long checksum;
+    // Non-blank lines of the file that could not be packed
+    private final int skippedLines;
+    // Sorted packed words of every length; shorter words pack to smaller values
+    private final long[] words;
+    // Index of the first word of each length in words, indexed by length
+    private final int[] lengthStarts;
+    private final AtomicReferenceArray<LexiconShard> shards;
+
+    private Lexicon(String path, long checksum, long[] words, int skippedLines) {
+        this.path = path;
+        this.checksum = checksum;
+        this.skippedLines = skippedLines;
+        this.words = words;
+        this.lengthStarts = new int[WordCodec.MAX_LENGTH + 2];
+        for (int length = 0; length < lengthStarts.length; length++) {
+            lengthStarts[length] = firstWordOfLength(words, length);
+        }
+        this.shards = new AtomicReferenceArray<>(WordCodec.MAX_LENGTH + 1);
+    }
+
+    private static int firstWordOfLength(long[] words, int length) {
+        if (length <= 1) {
+            return 0;
+        } else if (length > WordCodec.MAX_LENGTH) {
+            return words.length;
+        }
+        // Every shorter word packs below the smallest word of this length, all 'a'
+        int insertion = Arrays.binarySearch(words, WordCodec.pack("a".repeat(length)));
+        return insertion >= 0 ? insertion : -insertion - 1;
+    }
+
+    /**
+     * Get the shared lexicon for a dictionary, loading it on first use.
+     * A dictionary that fails to load is not cached
+     * @param path Dictionary resource path
+     * @return Shared lexicon
+     * @throws UncheckedIOException If the dictionary is missing or cannot be read
+     */
+    public static Lexicon load(String path) {
+        assert path != null && !path.isEmpty() : "Dictionary file path cannot be empty";
+        return CACHE.computeIfAbsent(path, Lexicon::read);
+    }
+
+    /**
+     * Load a dictionary without consulting or filling the shared cache.
+     * Only the words are parsed here, see {@link #shard(int)}; they come from
+     * the words image when it matches the size and modification time of the
+     * file, and otherwise from the text, which then refreshes the image
+     * @param path Dictionary resource path
+     * @return New lexicon
+     * @throws UncheckedIOException If the dictionary is missing or cannot be read
+     */
+    public static Lexicon read(String path) {
+        assert path != null && !path.isEmpty() : "Dictionary file path cannot be empty";
+
+        long begin = System.nanoTime();
+        // Stat before reading, so a file changed in between never matches the image
+        Path file = sourceFile(path);
+        BasicFileAttributes source = null;
+        if (file != null) {
+            try {
+                source = Files.readAttributes(file, BasicFileAttributes.class);
+            } catch (IOException e) {
+                // Read the text as if there were no image
+            }
+        }
+        Path image = DictionaryImage.wordsImagePath(path);
+        if (source != null) {
+            DictionaryImage.Words compiled = DictionaryImage.loadWords(image, source.size(),
+                    source.lastModifiedTime().to(TimeUnit.MICROSECONDS));
+            if (compiled != null) {
+                SKIPPED_LINES.add(compiled.getSkippedLines());
+                Lexicon lexicon = new Lexicon(path, compiled.getChecksum(), compiled.getWords(),
+                        compiled.getSkippedLines());
+                READ_LATENCY.record(System.nanoTime() - begin);
+                return lexicon;
+            }
+        }
+
+        byte[] text;
+        try (InputStream is = Lexicon.class.getClassLoader().getResourceAsStream(path)) {
+            if (is == null) {
+                throw new IOException("Dictionary file not found: " + path);
+            }
+            text = is.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error loading dictionary file: " + path, e);
+        }
+
+        int[] skipped = new int[PackedDictionary.SKIPPED_REASONS];
+        long[] words = PackedDictionary.parseWords(text, skipped);
+        int skippedLines = skipped[PackedDictionary.SKIPPED_TOO_LONG] + skipped[PackedDictionary.SKIPPED_NOT_LETTERS];
+        if (skippedLines > 0) {
+            System.err.println("Skipped " + skippedLines + " lines of " + path + ": "
+                    + skipped[PackedDictionary.SKIPPED_TOO_LONG] + " longer than " + WordCodec.MAX_LENGTH + " letters, "
+                    + skipped[PackedDictionary.SKIPPED_NOT_LETTERS] + " with characters other than letters");
+            SKIPPED_LINES.add(skippedLines);
+        }
+        long checksum = DictionaryImage.checksum(text);
+        long modified = source == null ? 0 : source.lastModifiedTime().to(TimeUnit.MICROSECONDS);
+        long now = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        if (source != null && modified < now - SETTLED_MICROS) {
+            try {
+                DictionaryImage.writeWords(image, source.size(), modified,
+                        new DictionaryImage.Words(checksum, words, skippedLines));
+            } catch (IOException e) {
+                System.err.println("Error writing dictionary image: " + image);
+            }
+        }
+        Lexicon lexicon = new Lexicon(path, checksum, words, skippedLines);
+        READ_LATENCY.record(System.nanoTime() - begin);
+        return lexicon;
+    }
+
+    /**
+     * Locate the file a dictionary resource is read from
+     * @param path Dictionary resource path
+     * @return File, or null if the resource is missing or not a plain file, e.g. inside a jar
+     */
+    static Path sourceFile(String path) {
+        URL url = Lexicon.class.getClassLoader().getResource(path);
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            return Paths.get(url.toURI());
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Words of one length with their graph and indexes, built on first use
+     * from the compiled image or, when it is missing or stale, from the words
+     * @param length Word length
+     * @return Shared shard
+     */
+    public LexiconShard shard(int length) {
+        assert countWordsOfLength(length) > 0 : "No word of the specified length was found";
+        LexiconShard shard = shards.get(length);
+        if (shard == null) {
+            synchronized (this) {
+                shard = shards.get(length);
+                if (shard == null) {
+                    shard = LexiconShard.load(path, checksum, length, wordsOfLength(length));
+                    shards.set(length, shard);
+                }
+            }
+        }
+        return shard;
+    }
+
+    /**
+     * Copy of the sorted packed words of one length
+     * @param length Word length
+     * @return Packed words
+     */
+    long[] wordsOfLength(int length) {
+        return Arrays.copyOfRange(words, lengthStarts[length], lengthStarts[length + 1]);
+    }
+
+    /**
+     * Build the shards and indexes another version of the dictionary had
+     * built, so a reloaded dictionary is as warm as the one it replaces
+     * @param previous Version being replaced
+     */
+    void preloadLike(Lexicon previous) {
+        for (int length : getWordLengths()) {
+            if (previous.isShardLoaded(length)) {
+                shard(length).preloadLike(previous.shard(length));
+            }
+        }
+    }
+
+    /**
+     * Make a reloaded dictionary the one {@link #load(String)} returns for its path
+     * @param lexicon New version
+     */
+    static void publish(Lexicon lexicon) {
+        CACHE.put(lexicon.getPath(), lexicon);
+    }
+
+    /**
+     * Check if the shard of a length has been built, without building it
+     * @param length Word length
+     * @return If shard(length) returns without building
+     */
+    public boolean isShardLoaded(int length) {
+        return length >= 0 && length < shards.length() && shards.get(length) != null;
+    }
+
+    /**
+     * Check if a word is in the dictionary, ignoring letter case. This is a
+     * binary search over the packed words and never builds a shard
+     * @param word Word
+     * @return If a valid word
+     */
+    public boolean contains(String word) {
+        int length = word.length();
+        if (countWordsOfLength(length) == 0) {
+            return false;
+        }
+        long packed = WordCodec.pack(word);
+        return packed != WordCodec.INVALID
+                && Arrays.binarySearch(words, lengthStarts[length], lengthStarts[length + 1], packed) >= 0;
+    }
+
+    /**
+     * Check in constant time if a ladder exists between two words
+     * @param start Start Word
+     * @param target Target Word
+     * @return If both words are in the dictionary, of the same length and connected
+     */
+    public boolean isReachable(String start, String target) {
+        return start.length() == target.length() && contains(start) && contains(target)
+                && shard(start.length()).isReachable(start, target);
+    }
+
+    /**
+     * Number of words of a given length
+     * @param length Word length
+     * @return Word count
+     */
+    public int countWordsOfLength(int length) {
+        return length > 0 && length <= WordCodec.MAX_LENGTH ? lengthStarts[length + 1] - lengthStarts[length] : 0;
+    }
+
+    /**
+     * Lengths that have at least one word
+     * @return Word lengths in ascending order
+     */
+    public int[] getWordLengths() {
+        return IntStream.rangeClosed(1, WordCodec.MAX_LENGTH).filter(length -> countWordsOfLength(length) > 0).toArray();
+    }
+
+    /**
+     * Pick a random word of a given length in constant time, without building its shard
+     * @param length Word length
+     * @param random Source of randomness
+     * @return Packed word
+     */
+    public long randomPackedWord(int length, RandomGenerator random) {
+        assert countWordsOfLength(length) > 0 : "No word of the specified length was found";
+        return words[lengthStarts[length] + random.nextInt(countWordsOfLength(length))];
+    }
+
+    /**
+     * CRC32 of the dictionary text, identifying the word IDs of this lexicon
+     * @return Checksum
+     */
+    public long getChecksum() {
+        return checksum;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Number of non-blank lines that are not playable words, because they
+     * are longer than {@link WordCodec#MAX_LENGTH} letters or have other
+     * characters; they are reported on standard error when the file is read
+     * @return Skipped line count
+     */
+    public int getSkippedLines() {
+        return skippedLines;
+    }
+
+    /**
+     * Number of words of every length
+     * @return Word count
+     */
+    public int size() {
+        return words.length;
+    }
+
+    @Override
+    public String toString() {
+        return "Lexicon[" + path + ", " + words.length + " words]";
+    }
+}
@@ -0,0 +1,177 @@
+package com.weaver.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * LexiconReloader holds the current version of a dictionary and replaces it
+ * when the file changes, without a restart. A new version is read and its
+ * indexes are built on a background thread, then swapped in with a single
+ * reference write. Games take a snapshot of the current version when they
+ * start (see {@link WeaverGame#WeaverGame(Supplier)}), so games in progress
+ * keep validating against the version they started with and tryWord never
+ * touches a lock
+ */
+public class LexiconReloader implements Supplier<Lexicon>, AutoCloseable {
+    // Editors often write a file in several steps; wait for the burst to settle
+    private static final long SETTLE_MILLIS = 100;
+
+    private final String path;
+    private final AtomicReference<Lexicon> current;
+    private final ExecutorService reloader;
+    private final List<Consumer<Lexicon>> listeners = new CopyOnWriteArrayList<>();
+    private volatile WatchService watchService;
+    private volatile int reloadCount;
+
+    /**
+     * Constructors
+     * @param initial Current version of the dictionary, e.g. from {@link Lexicon#load(String)}
+     */
+    public LexiconReloader(Lexicon initial) {
+        assert initial != null : "Lexicon cannot be null";
+        this.path = initial.getPath();
+        this.current = new AtomicReference<>(initial);
+        this.reloader = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "dictionary-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Current version of the dictionary, a plain volatile read
+     * @return Lexicon
+     */
+    @Override
+    public Lexicon get() {
+        return current.get();
+    }
+
+    /**
+     * Read the dictionary again on the calling thread and swap it in if its
+     * text changed. A dictionary that cannot be read keeps the current
+     * version. Word lengths that were in use are rebuilt before the swap,
+     * so the first new game does not pay for them
+     * @return The version now current
+     */
+    public synchronized Lexicon reload() {
+        Lexicon previous = current.get();
+        Lexicon next;
+        try {
+            next = Lexicon.read(path);
+        } catch (UncheckedIOException e) {
+            // Typically caught between an editor deleting and rewriting the file
+            System.err.println(e.getMessage());
+            return previous;
+        }
+        if (next.getChecksum() == previous.getChecksum() || next.size() == 0) {
+            return previous;
+        }
+        next.preloadLike(previous);
+        current.set(next);
+        Lexicon.publish(next);
+        reloadCount++;
+        for (Consumer<Lexicon> listener : listeners) {
+            listener.accept(next);
+        }
+        return next;
+    }
+
+    /**
+     * Reload on the background thread
+     * @return Completes with the version current after the reload
+     */
+    public CompletableFuture<Lexicon> reloadAsync() {
+        return CompletableFuture.supplyAsync(this::reload, reloader);
+    }
+
+    /**
+     * Reload automatically whenever the dictionary file changes. Only
+     * dictionaries on the file system can be watched, not ones inside a jar
+     * @throws IOException If the dictionary is not a file or cannot be watched
+     */
+    public synchronized void watch() throws IOException {
+        if (watchService != null) {
+            return;
+        }
+        Path file = dictionaryFile();
+        WatchService service = FileSystems.getDefault().newWatchService();
+        file.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        watchService = service;
+
+        Thread watcher = new Thread(() -> watchLoop(service, file.getFileName()), "dictionary-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void watchLoop(WatchService service, Path fileName) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                // Drain the rest of the burst before reloading once
+                while (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        changed |= fileName.equals(event.context());
+                    }
+                    key.reset();
+                    key = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                if (changed) {
+                    reloadAsync();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Watching stopped
+        }
+    }
+
+    private Path dictionaryFile() throws IOException {
+        Path file = Lexicon.sourceFile(path);
+        if (file == null) {
+            throw new IOException("Dictionary is not a file that can be watched: " + path);
+        }
+        return file;
+    }
+
+    /**
+     * Be notified on the reload thread after a new version was swapped in
+     * @param listener Receives the new version
+     */
+    public void addListener(Consumer<Lexicon> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Number of times a changed dictionary was swapped in
+     * @return Reload count
+     */
+    public int getReloadCount() {
+        return reloadCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        WatchService service = watchService;
+        if (service != null) {
+            service.close();
+        }
+        reloader.shutdownNow();
+    }
+}
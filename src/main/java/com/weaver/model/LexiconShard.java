@@ -0,0 +1,254 @@
+package com.weaver.model;
+
+import com.weaver.metrics.ConcurrentLatencyHistogram;
+import com.weaver.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.random.RandomGenerator;
+
+/**
+ * LexiconShard holds the words of one length together with their word graph
+ * and the indexes derived from it. One-letter moves never change the length
+ * of a word, so every game is played entirely inside one shard. Shards are
+ * built by {@link Lexicon#shard(int)} the first time their length is used
+ */
+public final class LexiconShard {
+    private static final ConcurrentLatencyHistogram LOAD_LATENCY =
+            MetricsRegistry.getDefault().histogram("dictionary.shard_load.latency");
+
+    private final String path;
+    private final long checksum;
+    private final int wordLength;
+    private final PackedDictionary dictionary;
+    private final WordGraph wordGraph;
+    private final ComponentIndex components;
+    private final HintEngine hintEngine;
+    private volatile PuzzleGenerator puzzleGenerator;
+    private volatile ReplacementMasks replacementMasks;
+    private volatile WordFilter wordFilter;
+    private volatile DistanceTable distanceTable;
+
+    private LexiconShard(String path, long checksum, int wordLength, WordGraph wordGraph) {
+        this.path = path;
+        this.checksum = checksum;
+        this.wordLength = wordLength;
+        this.wordGraph = wordGraph;
+        this.dictionary = wordGraph.getDictionary();
+        this.components = new ComponentIndex(wordGraph);
+        this.hintEngine = new HintEngine(wordGraph, HintEngine.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Load a shard from its compiled image, or build its graph from the words
+     * and persist the image when the image is missing or stale
+     * @param path Dictionary resource path
+     * @param checksum Checksum of the dictionary text
+     * @param wordLength Length of every word in the shard
+     * @param sortedWords Sorted unique packed words of that length, the array is retained
+     * @return New shard
+     */
+    static LexiconShard load(String path, long checksum, int wordLength, long[] sortedWords) {
+        long begin = System.nanoTime();
+        Path image = DictionaryImage.shardImagePath(path, wordLength);
+        WordGraph graph = DictionaryImage.load(image, checksum);
+        if (graph == null) {
+            graph = WordGraph.build(PackedDictionary.ofSorted(sortedWords));
+            try {
+                DictionaryImage.write(image, checksum, graph);
+            } catch (IOException e) {
+                System.err.println("Error writing dictionary image: " + image);
+            }
+        }
+        LexiconShard shard = new LexiconShard(path, checksum, wordLength, graph);
+        LOAD_LATENCY.record(System.nanoTime() - begin);
+        return shard;
+    }
+
+    /**
+     * Build the lazy indexes another version of this shard had built
+     * @param previous Shard of the same length in the version being replaced
+     */
+    void preloadLike(LexiconShard previous) {
+        if (previous.puzzleGenerator != null) {
+            getPuzzleGenerator().precompute();
+        }
+        if (previous.replacementMasks != null) {
+            getReplacementMasks();
+        }
+        if (previous.distanceTable != null) {
+            getDistanceTable();
+        }
+        if (previous.wordFilter != null) {
+            getWordFilter();
+        }
+    }
+
+    /**
+     * Check if a word is in this shard, ignoring letter case
+     * @param word Word
+     * @return If a valid word
+     */
+    public boolean contains(String word) {
+        return dictionary.contains(word);
+    }
+
+    /**
+     * Check in constant time if a ladder exists between two words
+     * @param start Start Word
+     * @param target Target Word
+     * @return If both words are in the shard and connected
+     */
+    public boolean isReachable(String start, String target) {
+        int a = dictionary.indexOf(WordCodec.pack(start));
+        int b = dictionary.indexOf(WordCodec.pack(target));
+        return a >= 0 && b >= 0 && components.isReachable(a, b);
+    }
+
+    /**
+     * Connected components of the word graph, computed when the shard is built
+     * @return Component index
+     */
+    public ComponentIndex getComponents() {
+        return components;
+    }
+
+    /**
+     * Shared hint engine with its cache of per-target search trees
+     * @return Hint engine
+     */
+    public HintEngine getHintEngine() {
+        return hintEngine;
+    }
+
+    /**
+     * Pick a random word ID in constant time
+     * @param random Source of randomness
+     * @return Word ID
+     */
+    public int randomWordId(RandomGenerator random) {
+        return random.nextInt(dictionary.size());
+    }
+
+    /**
+     * Shared puzzle generator. On first use its distance distribution starts
+     * being computed in the background, if the shard is small enough; the
+     * generator samples start words until then
+     * @return Puzzle generator
+     */
+    public PuzzleGenerator getPuzzleGenerator() {
+        PuzzleGenerator generator = puzzleGenerator;
+        if (generator == null) {
+            synchronized (this) {
+                generator = puzzleGenerator;
+                if (generator == null) {
+                    generator = new PuzzleGenerator(wordGraph);
+                    puzzleGenerator = generator;
+                    if (PuzzleGenerator.fits(size())) {
+                        CompletableFuture.runAsync(generator::precompute);
+                    }
+                }
+            }
+        }
+        return generator;
+    }
+
+    /**
+     * Per-word, per-position replacement letter masks, derived on first use
+     * @return Replacement masks
+     */
+    public ReplacementMasks getReplacementMasks() {
+        ReplacementMasks masks = replacementMasks;
+        if (masks == null) {
+            synchronized (this) {
+                masks = replacementMasks;
+                if (masks == null) {
+                    masks = ReplacementMasks.build(wordGraph);
+                    replacementMasks = masks;
+                }
+            }
+        }
+        return masks;
+    }
+
+    /**
+     * Bloom filter of the words, rejecting definite non-words before a
+     * dictionary lookup; built on first use
+     * @return Word filter
+     */
+    public WordFilter getWordFilter() {
+        WordFilter filter = wordFilter;
+        if (filter == null) {
+            synchronized (this) {
+                filter = wordFilter;
+                if (filter == null) {
+                    filter = WordFilter.build(dictionary, WordFilter.DEFAULT_BITS_PER_WORD);
+                    wordFilter = filter;
+                    // Report the filter of the newest version of each length
+                    MetricsRegistry metrics = MetricsRegistry.getDefault();
+                    metrics.gauge("word_filter.length" + wordLength + ".saved_lookups", filter::getSavedLookups);
+                    metrics.gauge("word_filter.length" + wordLength + ".false_positives", filter::getFalsePositives);
+                }
+            }
+        }
+        return filter;
+    }
+
+    /**
+     * All-pairs distance table, mapped from disk or built and persisted on first use
+     * @return Distance table, or null if the shard is too large for one
+     */
+    public DistanceTable getDistanceTable() {
+        DistanceTable table = distanceTable;
+        if (table == null && hasDistanceTable()) {
+            synchronized (this) {
+                table = distanceTable;
+                if (table == null) {
+                    table = DistanceTable.loadOrBuild(wordGraph, checksum,
+                            DictionaryImage.cacheFile(path, ".len" + wordLength + ".dist"));
+                    distanceTable = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Check if the shard is small enough for a distance table, see {@link DistanceTable#MAX_WORDS}
+     * @return If getDistanceTable() returns a table
+     */
+    public boolean hasDistanceTable() {
+        return DistanceTable.fits(size());
+    }
+
+    /**
+     * Check if the distance table is ready, so callers on latency-sensitive
+     * threads can avoid triggering the build
+     * @return If getDistanceTable() returns without building
+     */
+    public boolean isDistanceTableLoaded() {
+        return distanceTable != null;
+    }
+
+    public int getWordLength() {
+        return wordLength;
+    }
+
+    public PackedDictionary getDictionary() {
+        return dictionary;
+    }
+
+    public WordGraph getWordGraph() {
+        return wordGraph;
+    }
+
+    public int size() {
+        return dictionary.size();
+    }
+
+    @Override
+    public String toString() {
+        return "LexiconShard[" + path + ", length " + wordLength + ", " + wordGraph + "]";
+    }
+}
@@ -0,0 +1,225 @@
+package com.weaver.model;
+
+import java.util.Arrays;
+
+/**
+ * PackedDictionary stores the dictionary as a sorted array of packed words
+ * (see {@link WordCodec}). The index of a word in the array is its word ID.
+ * Lookups go through an open-addressing hash table of word IDs, which avoids
+ * the branch mispredictions of a binary search on every probe
+ */
+public class PackedDictionary {
+    private static final int EMPTY = -1;
+
+    /** Index of the count of lines too long to pack, see {@link #parseWords(byte[], int[])} */
+    static final int SKIPPED_TOO_LONG = 0;
+    /** Index of the count of lines with characters other than letters */
+    static final int SKIPPED_NOT_LETTERS = 1;
+    static final int SKIPPED_REASONS = 2;
+
+    private final long[] words;
+    private final int[] table;
+    private final int tableShift;
+
+    private PackedDictionary(long[] words) {
+        this.words = words;
+        // Keep the load factor at or below one half
+        int capacity = Integer.highestOneBit(Math.max(4, words.length) * 2 - 1) << 1;
+        this.tableShift = 64 - Integer.numberOfTrailingZeros(capacity);
+        this.table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+        for (int id = 0; id < words.length; id++) {
+            int slot = slot(words[id]);
+            while (table[slot] != EMPTY) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            table[slot] = id;
+        }
+    }
+
+    /**
+     * Create a dictionary from packed words, sorting them and dropping
+     * duplicates and INVALID entries
+     * @param packed Packed words, the array is not retained
+     * @param count Number of used entries in the array
+     * @return Dictionary
+     */
+    public static PackedDictionary of(long[] packed, int count) {
+        assert packed != null && count >= 0 && count <= packed.length : "Invalid packed word array";
+        return new PackedDictionary(sortUnique(packed, count));
+    }
+
+    /**
+     * Sort packed words and drop duplicates and INVALID entries. Shorter words
+     * pack to smaller values, so words of one length end up contiguous
+     * @param packed Packed words, the array is not retained
+     * @param count Number of used entries in the array
+     * @return Sorted unique words
+     */
+    static long[] sortUnique(long[] packed, int count) {
+        long[] words = Arrays.copyOf(packed, count);
+        Arrays.sort(words);
+        int size = 0;
+        for (long word : words) {
+            if (word == WordCodec.INVALID) continue;
+            if (size == 0 || words[size - 1] != word) {
+                words[size++] = word;
+            }
+        }
+        return size == words.length ? words : Arrays.copyOf(words, size);
+    }
+
+    /**
+     * Wrap words that are already sorted and unique, e.g. read from a dictionary image
+     * @param sortedWords Sorted packed words, the array is retained
+     * @return Dictionary
+     */
+    static PackedDictionary ofSorted(long[] sortedWords) {
+        return new PackedDictionary(sortedWords);
+    }
+
+    /**
+     * Parse dictionary text with one word per line. Lines are trimmed and
+     * packed straight from the bytes, ignoring case; lines that are not
+     * words of 1 to MAX_LENGTH letters are skipped
+     * @param text Raw bytes of the dictionary file
+     * @return Dictionary
+     */
+    public static PackedDictionary parse(byte[] text) {
+        return ofSorted(parseWords(text));
+    }
+
+    /**
+     * Parse dictionary text into sorted unique packed words without building
+     * the lookup table, see {@link #parse(byte[])}
+     * @param text Raw bytes of the dictionary file
+     * @return Sorted unique packed words
+     */
+    static long[] parseWords(byte[] text) {
+        return parseWords(text, new int[SKIPPED_REASONS]);
+    }
+
+    /**
+     * Parse dictionary text into sorted unique packed words, counting the
+     * non-blank lines that cannot be encoded
+     * @param text Raw bytes of the dictionary file
+     * @param skipped Receives the number of lines longer than
+     *                {@link WordCodec#MAX_LENGTH} at SKIPPED_TOO_LONG and of
+     *                lines with other characters than letters at SKIPPED_NOT_LETTERS
+     * @return Sorted unique packed words
+     */
+    static long[] parseWords(byte[] text, int[] skipped) {
+        assert skipped.length >= SKIPPED_REASONS : "Too few skipped line counters";
+        long[] words = new long[Math.max(16, text.length / 5)];
+        int count = 0;
+        long packed = 0;
+        int length = 0;
+        boolean valid = true;
+        boolean trailing = false;
+        for (int i = 0; i <= text.length; i++) {
+            int c = i < text.length ? text[i] & 0xFF : '\n';
+            if (c == '\n' || c == '\r') {
+                if (length == 0) {
+                    // Blank line
+                } else if (!valid) {
+                    skipped[SKIPPED_NOT_LETTERS]++;
+                } else if (length > WordCodec.MAX_LENGTH) {
+                    skipped[SKIPPED_TOO_LONG]++;
+                } else {
+                    if (count == words.length) {
+                        words = Arrays.copyOf(words, count * 2);
+                    }
+                    words[count++] = packed;
+                }
+                packed = 0;
+                length = 0;
+                valid = true;
+                trailing = false;
+            } else if (c <= ' ') {
+                trailing = length > 0;
+            } else {
+                int letter = (c | 0x20) - 'a' + 1;
+                if (letter < 1 || letter > 26 || trailing) {
+                    valid = false;
+                }
+                packed = (packed << 5) | letter;
+                length++;
+            }
+        }
+        return sortUnique(words, count);
+    }
+
+    /**
+     * Check if a packed word is in the dictionary
+     * @param packed Packed word
+     * @return If a valid word
+     */
+    public boolean contains(long packed) {
+        return indexOf(packed) >= 0;
+    }
+
+    /**
+     * Check if a word is in the dictionary, ignoring letter case
+     * @param word Word
+     * @return If a valid word
+     */
+    public boolean contains(String word) {
+        return indexOf(WordCodec.pack(word)) >= 0;
+    }
+
+    /**
+     * Look up the ID of a packed word
+     * @param packed Packed word
+     * @return Word ID, or -1 if not in the dictionary
+     */
+    public int indexOf(long packed) {
+        int mask = table.length - 1;
+        for (int slot = slot(packed); ; slot = (slot + 1) & mask) {
+            int id = table[slot];
+            if (id == EMPTY || words[id] == packed) {
+                return id;
+            }
+        }
+    }
+
+    private int slot(long packed) {
+        // Fibonacci hashing spreads the low letter lanes over the table
+        return (int) ((packed * 0x9E3779B97F4A7C15L) >>> tableShift);
+    }
+
+    public int size() {
+        return words.length;
+    }
+
+    public boolean isEmpty() {
+        return words.length == 0;
+    }
+
+    /**
+     * @param id Word ID
+     * @return Packed word
+     */
+    public long packedAt(int id) {
+        return words[id];
+    }
+
+    /**
+     * @param id Word ID
+     * @return Lowercase word
+     */
+    public String wordAt(int id) {
+        return WordCodec.unpack(words[id]);
+    }
+
+    /**
+     * Heap used by the packed word array and the lookup table
+     * @return Size in bytes
+     */
+    public long getMemoryFootprint() {
+        return (16L + 8L * words.length) + intArrayBytes(table.length);
+    }
+
+    private static long intArrayBytes(int length) {
+        return (16L + 4L * length + 7) & ~7L;
+    }
+}
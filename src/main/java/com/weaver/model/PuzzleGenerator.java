@@ -0,0 +1,321 @@
+package com.weaver.model;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.random.RandomGenerator;
+
+/**
+ * PuzzleGenerator draws solvable (start, target) pairs whose shortest ladder
+ * length falls in a requested band. For shards of up to {@link #MAX_WORDS}
+ * words, a breadth-first search from every word counts, per start word, how
+ * many targets lie at each distance; a puzzle is then picked uniformly from
+ * those counts with a single search bounded by the chosen distance. That
+ * precomputation is quadratic, so it runs in the background via
+ * {@link #precompute()}. Until it is done, and for larger shards, each draw
+ * runs at most {@link #SAMPLE_ATTEMPTS} searches from random start words,
+ * which keeps every draw linear in the size of the shard
+ */
+public class PuzzleGenerator {
+    /** Largest shard whose distance distribution is precomputed */
+    public static final int MAX_WORDS = 8192;
+    /** Start words tried per draw while there is no precomputed distribution */
+    public static final int SAMPLE_ATTEMPTS = 8;
+
+    private final WordGraph graph;
+    // Words with at least one neighbour, the only possible start words
+    private final int[] connectedWords;
+    // pairsBefore[d][s] = number of pairs at distance d whose start ID is below s
+    private volatile long[][] pairsBefore;
+
+    /**
+     * Constructors, without precomputing anything
+     * @param graph One-letter-neighbour graph of the dictionary
+     */
+    public PuzzleGenerator(WordGraph graph) {
+        assert graph != null : "Word graph cannot be null";
+        this.graph = graph;
+        this.connectedWords = IntStream.range(0, graph.size()).filter(id -> graph.degree(id) > 0).toArray();
+    }
+
+    /**
+     * Check if a shard is small enough for a precomputed distance distribution
+     * @param words Number of words
+     * @return If precompute() builds the distribution
+     */
+    public static boolean fits(int words) {
+        return words <= MAX_WORDS;
+    }
+
+    /**
+     * Compute the distance distribution in parallel, unless it is already
+     * computed or the graph is too large. Blocks while another thread computes it
+     */
+    public synchronized void precompute() {
+        if (pairsBefore != null || !fits(graph.size())) {
+            return;
+        }
+        int n = graph.size();
+        int[][] counts = new int[n][];
+        IntStream.range(0, n).parallel().forEach(source -> counts[source] = distanceCounts(source));
+
+        int maxDistance = 0;
+        for (int[] sourceCounts : counts) {
+            maxDistance = Math.max(maxDistance, sourceCounts.length - 1);
+        }
+        long[][] before = new long[maxDistance + 1][n + 1];
+        for (int d = 1; d <= maxDistance; d++) {
+            for (int s = 0; s < n; s++) {
+                before[d][s + 1] = before[d][s] + (d < counts[s].length ? counts[s][d] : 0);
+            }
+        }
+        pairsBefore = before;
+    }
+
+    /**
+     * Check if draws use the precomputed distribution
+     * @return If precompute() has finished
+     */
+    public boolean isPrecomputed() {
+        return pairsBefore != null;
+    }
+
+    /**
+     * Draw a puzzle whose optimal ladder has between minSteps and maxSteps steps
+     * @param minSteps Minimum ladder length, at least 1
+     * @param maxSteps Maximum ladder length, Integer.MAX_VALUE for no limit
+     * @param random Source of randomness
+     * @return Puzzle, or null if no pair falls in the band; without a
+     *         precomputed distribution, null if none of the sampled start
+     *         words has a target in the band
+     */
+    public Puzzle generate(int minSteps, int maxSteps, RandomGenerator random) {
+        assert minSteps >= 1 && minSteps <= maxSteps : "Invalid step band";
+
+        long[][] pairsBefore = this.pairsBefore;
+        if (pairsBefore == null) {
+            return sample(minSteps, maxSteps, random);
+        }
+        int n = graph.size();
+        int to = Math.min(maxSteps, pairsBefore.length - 1);
+        long total = 0;
+        for (int d = minSteps; d <= to; d++) {
+            total += pairsBefore[d][n];
+        }
+        if (total == 0) {
+            return null;
+        }
+
+        // Map a uniform pair index onto (distance, start, k-th target at that distance)
+        long pick = random.nextLong(total);
+        int distance = minSteps;
+        while (pick >= pairsBefore[distance][n]) {
+            pick -= pairsBefore[distance][n];
+            distance++;
+        }
+        long[] before = pairsBefore[distance];
+        // Binary search for the start with before[start] <= pick < before[start + 1]
+        int low = 0;
+        int high = n;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (before[mid] <= pick) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        int start = low;
+        int target = nthAtDistance(start, distance, (int) (pick - before[start]));
+        return new Puzzle(graph.getWord(start), graph.getWord(target), distance);
+    }
+
+    /**
+     * Draw a puzzle in a band of ladder lengths, or from every connected pair
+     * when the band is empty, as in small shards with only short ladders
+     * @param minSteps Minimum ladder length, at least 1
+     * @param maxSteps Maximum ladder length, Integer.MAX_VALUE for no limit
+     * @param random Source of randomness
+     * @return Puzzle
+     * @throws IllegalStateException If no two words are connected
+     */
+    public Puzzle generateOrWiden(int minSteps, int maxSteps, RandomGenerator random) {
+        Puzzle puzzle = generate(minSteps, maxSteps, random);
+        if (puzzle == null) {
+            puzzle = generate(1, Integer.MAX_VALUE, random);
+        }
+        if (puzzle == null) {
+            throw new IllegalStateException("no two words of this length are connected");
+        }
+        return puzzle;
+    }
+
+    /**
+     * Draw from random start words: a search from each, cut off at maxSteps,
+     * visits the words in order of distance, so the targets in the band are
+     * one run of its queue and one of them is picked uniformly
+     */
+    private Puzzle sample(int minSteps, int maxSteps, RandomGenerator random) {
+        if (connectedWords.length == 0) {
+            return null;
+        }
+        int[] distances = new int[graph.size()];
+        Arrays.fill(distances, -1);
+        int[] queue = new int[graph.size()];
+        for (int attempt = 0; attempt < SAMPLE_ATTEMPTS; attempt++) {
+            int source = connectedWords[random.nextInt(connectedWords.length)];
+            int head = 0;
+            int tail = 0;
+            int bandStart = -1;
+            distances[source] = 0;
+            queue[tail++] = source;
+            while (head < tail) {
+                int word = queue[head++];
+                if (distances[word] >= minSteps && bandStart < 0) {
+                    bandStart = head - 1;
+                }
+                if (distances[word] == maxSteps) continue;
+                for (int e = graph.edgeStart(word), end = graph.edgeEnd(word); e < end; e++) {
+                    int neighbour = graph.edgeTarget(e);
+                    if (distances[neighbour] >= 0) continue;
+                    distances[neighbour] = distances[word] + 1;
+                    queue[tail++] = neighbour;
+                }
+            }
+            if (bandStart >= 0) {
+                int target = queue[bandStart + random.nextInt(tail - bandStart)];
+                return new Puzzle(graph.getWord(source), graph.getWord(target), distances[target]);
+            }
+            for (int i = 0; i < tail; i++) {
+                distances[queue[i]] = -1;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Number of ordered pairs at each ladder length, precomputing the
+     * distribution first if needed
+     * @return Pair counts indexed by distance
+     * @throws IllegalStateException If the graph is too large for a precomputed distribution
+     */
+    public long[] getDistanceDistribution() {
+        long[][] pairsBefore = precomputed();
+        long[] distribution = new long[pairsBefore.length];
+        for (int d = 1; d < distribution.length; d++) {
+            distribution[d] = pairsBefore[d][graph.size()];
+        }
+        return distribution;
+    }
+
+    /**
+     * Longest optimal ladder in the dictionary, precomputing the distribution first if needed
+     * @return Maximum distance between two connected words
+     * @throws IllegalStateException If the graph is too large for a precomputed distribution
+     */
+    public int getMaxDistance() {
+        return precomputed().length - 1;
+    }
+
+    private long[][] precomputed() {
+        if (!fits(graph.size())) {
+            throw new IllegalStateException("Too many words for a distance distribution: " + graph.size());
+        }
+        precompute();
+        return pairsBefore;
+    }
+
+    private int[] distanceCounts(int source) {
+        int[] counts = new int[8];
+        int[] distances = new int[graph.size()];
+        Arrays.fill(distances, -1);
+        int[] queue = new int[graph.size()];
+        int head = 0;
+        int tail = 0;
+        distances[source] = 0;
+        queue[tail++] = source;
+        int maxDistance = 0;
+        while (head < tail) {
+            int word = queue[head++];
+            for (int e = graph.edgeStart(word), end = graph.edgeEnd(word); e < end; e++) {
+                int neighbour = graph.edgeTarget(e);
+                if (distances[neighbour] >= 0) continue;
+                int d = distances[word] + 1;
+                distances[neighbour] = d;
+                queue[tail++] = neighbour;
+                if (d >= counts.length) {
+                    counts = Arrays.copyOf(counts, counts.length * 2);
+                }
+                counts[d]++;
+                maxDistance = Math.max(maxDistance, d);
+            }
+        }
+        return Arrays.copyOf(counts, maxDistance + 1);
+    }
+
+    /**
+     * Find the index-th word (in BFS discovery order) at a distance from the source,
+     * searching no deeper than that distance
+     */
+    private int nthAtDistance(int source, int distance, int index) {
+        int[] distances = new int[graph.size()];
+        Arrays.fill(distances, -1);
+        int[] queue = new int[graph.size()];
+        int head = 0;
+        int tail = 0;
+        distances[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int word = queue[head++];
+            if (distances[word] == distance - 1) {
+                for (int e = graph.edgeStart(word), end = graph.edgeEnd(word); e < end; e++) {
+                    int neighbour = graph.edgeTarget(e);
+                    if (distances[neighbour] >= 0) continue;
+                    distances[neighbour] = distance;
+                    if (index-- == 0) {
+                        return neighbour;
+                    }
+                }
+                continue;
+            }
+            for (int e = graph.edgeStart(word), end = graph.edgeEnd(word); e < end; e++) {
+                int neighbour = graph.edgeTarget(e);
+                if (distances[neighbour] >= 0) continue;
+                distances[neighbour] = distances[word] + 1;
+                queue[tail++] = neighbour;
+            }
+        }
+        throw new IllegalStateException("Distance distribution does not match the word graph");
+    }
+
+    /**
+     * A start and target word together with the optimal ladder length
+     */
+    public static class Puzzle {
+        private final String startWord;
+        private final String targetWord;
+        private final int steps;
+
+        public Puzzle(String startWord, String targetWord, int steps) {
+            this.startWord = startWord;
+            this.targetWord = targetWord;
+            this.steps = steps;
+        }
+
+        public String getStartWord() {
+            return startWord;
+        }
+
+        public String getTargetWord() {
+            return targetWord;
+        }
+
+        public int getSteps() {
+            return steps;
+        }
+
+        @Override
+        public String toString() {
+            return startWord + " -> " + targetWord + " (" + steps + " steps)";
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.weaver.model;
+
+import java.util.stream.IntStream;
+
+/**
+ * For every word and letter position, a 26-bit mask of the letters that can
+ * replace the letter there to form another dictionary word (bit 0 is 'a').
+ * The masks are derived from the word graph edges, so answering "which
+ * letters may come next" while a move is being typed is a few bit operations
+ * with no dictionary probing
+ */
+public class ReplacementMasks {
+    private final int[] masks;
+    // Slots per word, the length of the longest word
+    private final int stride;
+
+    private ReplacementMasks(int[] masks, int stride) {
+        this.masks = masks;
+        this.stride = stride;
+    }
+
+    /**
+     * Derive the masks from the word graph, one word per task in parallel
+     * @param graph One-letter-neighbour graph of the dictionary
+     * @return Masks
+     */
+    public static ReplacementMasks build(WordGraph graph) {
+        PackedDictionary dictionary = graph.getDictionary();
+        // Longer words pack to larger values, so the last word is a longest one
+        int stride = dictionary.isEmpty() ? 0 : WordCodec.length(dictionary.packedAt(dictionary.size() - 1));
+        int[] masks = new int[graph.size() * stride];
+        // Each word writes only its own slots, so the tasks need no coordination
+        IntStream.range(0, graph.size()).parallel().forEach(word -> {
+            long packed = dictionary.packedAt(word);
+            int length = WordCodec.length(packed);
+            for (int e = graph.edgeStart(word), end = graph.edgeEnd(word); e < end; e++) {
+                long neighbour = dictionary.packedAt(graph.edgeTarget(e));
+                // The single differing letter is in the highest non-zero lane of the XOR
+                int lane = (63 - Long.numberOfLeadingZeros(packed ^ neighbour)) / 5;
+                int position = length - 1 - lane;
+                masks[word * stride + position] |= 1 << (WordCodec.letterAt(neighbour, length, position) - 1);
+            }
+        });
+        return new ReplacementMasks(masks, stride);
+    }
+
+    /**
+     * Letters that can replace one position of a word
+     * @param word Word ID
+     * @param position Position from 0 to length - 1
+     * @return 26-bit letter mask, bit 0 for 'a'
+     */
+    public int mask(int word, int position) {
+        return masks[word * stride + position];
+    }
+
+    /**
+     * Letters that can be typed next so the input can still become a valid
+     * one-letter move from the current word
+     * @param word Current word ID
+     * @param length Current word length
+     * @param currentPacked Current word packed
+     * @param typed Letters typed so far, any case
+     * @return 26-bit letter mask, bit 0 for 'a'; 0 if nothing can follow
+     */
+    public int nextLetters(int word, int length, long currentPacked, CharSequence typed) {
+        int next = typed.length();
+        if (next >= length) {
+            return 0;
+        }
+        // Find the position already changed, if any
+        int changed = -1;
+        for (int i = 0; i < next; i++) {
+            int letter = (typed.charAt(i) | 0x20) - 'a' + 1;
+            if (letter < 1 || letter > 26) {
+                return 0;
+            }
+            if (letter != WordCodec.letterAt(currentPacked, length, i)) {
+                if (changed >= 0 || (mask(word, i) & (1 << (letter - 1))) == 0) {
+                    return 0;
+                }
+                changed = i;
+            }
+        }
+
+        int keep = 1 << (WordCodec.letterAt(currentPacked, length, next) - 1);
+        if (changed >= 0) {
+            // The move is fixed; the remaining letters must match the current word
+            return keep;
+        }
+        int letters = mask(word, next);
+        for (int i = next + 1; i < length; i++) {
+            if (mask(word, i) != 0) {
+                // A later position can still change, so keeping this letter is fine
+                return letters | keep;
+            }
+        }
+        return letters;
+    }
+}
@@ -0,0 +1,45 @@
+package com.weaver.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A shortest-path search algorithm over the word graph, pluggable into
+ * {@link WeaverSolver} so strategies can be benchmarked against each other
+ */
+public interface SearchStrategy {
+    /**
+     * Short name for reports, e.g. "bfs"
+     * @return Strategy name
+     */
+    String getName();
+
+    /**
+     * Find an optimal ladder between two distinct words
+     * @param graph Word graph
+     * @param start Start word ID
+     * @param target Target word ID
+     * @return Search result; the wall time is filled in by the solver
+     */
+    SolverResult search(WordGraph graph, int start, int target);
+
+    /**
+     * Follow parent pointers from a word back to the search root, whose parent is itself
+     * @param graph Word graph
+     * @param parents Parent word ID per word
+     * @param end Word to start tracing from
+     * @return Words from the root to end
+     */
+    static List<String> tracePath(WordGraph graph, int[] parents, int end) {
+        List<String> path = new ArrayList<>();
+        int word = end;
+        path.add(graph.getWord(word));
+        while (parents[word] != word) {
+            word = parents[word];
+            path.add(graph.getWord(word));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+}
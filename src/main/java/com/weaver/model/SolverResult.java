@@ -0,0 +1,93 @@
+package com.weaver.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of a shortest-path search between two words
+ */
+public class SolverResult {
+    private final List<String> path;
+    private final int expandedNodes;
+    private final int peakFrontierSize;
+    private final long elapsedNanos;
+
+    /**
+     * Constructors
+     * @param path Word ladder from start to target, empty if no ladder exists
+     * @param expandedNodes Number of words whose neighbours were generated during the search
+     */
+    public SolverResult(List<String> path, int expandedNodes) {
+        this(path, expandedNodes, 0, 0);
+    }
+
+    /**
+     * Constructors
+     * @param path Word ladder from start to target, empty if no ladder exists
+     * @param expandedNodes Number of words whose neighbours were generated during the search
+     * @param peakFrontierSize Largest number of words waiting to be expanded at once
+     * @param elapsedNanos Wall time of the search
+     */
+    public SolverResult(List<String> path, int expandedNodes, int peakFrontierSize, long elapsedNanos) {
+        assert path != null : "The path cannot be null";
+        assert expandedNodes >= 0 : "Expanded node count cannot be negative";
+        this.path = Collections.unmodifiableList(path);
+        this.expandedNodes = expandedNodes;
+        this.peakFrontierSize = peakFrontierSize;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Copy of this result with the measured wall time filled in
+     * @param elapsedNanos Wall time of the search
+     * @return Result
+     */
+    public SolverResult withElapsedNanos(long elapsedNanos) {
+        return new SolverResult(path, expandedNodes, peakFrontierSize, elapsedNanos);
+    }
+
+    /**
+     * Check if a ladder between the two words exists
+     * @return If solvable
+     */
+    public boolean isSolvable() {
+        return !path.isEmpty();
+    }
+
+    /**
+     * Full ladder including the start and target words
+     * @return Path, empty if unsolvable
+     */
+    public List<String> getPath() {
+        return path;
+    }
+
+    /**
+     * Number of steps of the optimal ladder
+     * @return Step count, or -1 if unsolvable
+     */
+    public int getLength() {
+        return path.size() - 1;
+    }
+
+    public int getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    public int getPeakFrontierSize() {
+        return peakFrontierSize;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        String stats = String.format("%d expanded, peak frontier %d, %.1f us",
+                expandedNodes, peakFrontierSize, elapsedNanos / 1000.0);
+        return isSolvable()
+                ? String.join(" -> ", path) + " (" + getLength() + " steps, " + stats + ")"
+                : "unsolvable (" + stats + ")";
+    }
+}
@@ -1,23 +1,59 @@
 package com.weaver.model;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import com.weaver.metrics.ConcurrentLatencyHistogram;
+import com.weaver.metrics.MetricsRegistry;
+
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
 
 /**
  * WeaverGame class is the core model class of the game
  * and implements the main logic of the word change game
  */
-public class WeaverGame extends Observable {
+public class WeaverGame {
     private String startWord;
     private String targetWord;
-    private Set<String> dictionary;
-    private List<String> gameHistory;
+    private long targetPacked;
+    private long currentPacked;
+    // Dictionary ID of the current word, looked up lazily; -1 until needed
+    private int currentId = -1;
+    // Supplies the current dictionary version when a game starts, or null for a fixed lexicon
+    private final Supplier<Lexicon> lexiconSource;
+    // Snapshot of the dictionary this game validates against
+    private Lexicon lexicon;
+    // Words of the current game's length, chosen when a game starts
+    private LexiconShard shard;
+    private PackedDictionary dictionary;
+    // Pre-check in front of the dictionary lookup, or null when disabled
+    private WordFilter wordFilter;
+    private boolean useWordFilter;
+    private int wordLength;
+    // Packed words played so far, reused across games so moves do not allocate
+    private long[] history;
+    private int historySize;
+    private final GameEventBus eventBus;
+    // Payload refilled for every event, see fireEvent
+    private final GameUpdate update = new GameUpdate();
+    private boolean publishing;
+    private GameJournal journal;
+    private long sessionId;
     private boolean showErrorMessage;
     private boolean showPath;
     private boolean useRandomWords;
+    private Difficulty difficulty;
+    private boolean requireReachable;
+    private RandomGenerator random;
+    private int moveCount;
+
+    private static final int INITIAL_HISTORY_CAPACITY = 32;
+    // Time one move in 64: two clock reads cost several times as much as a move
+    private static final int MOVE_SAMPLE_MASK = 63;
+    private static final ConcurrentLatencyHistogram TRY_WORD_LATENCY =
+            MetricsRegistry.getDefault().histogram("game.try_word.latency");
+    private static final LongAdder[] EVENT_COUNTS = eventCounters();
 
     public enum GameEvent {
         GAME_INITIALIZED,
@@ -29,40 +65,57 @@ public class WeaverGame extends Observable {
         SETTINGS_CHANGED // 新增设置变更事件
     }
 
+    private static LongAdder[] eventCounters() {
+        GameEvent[] events = GameEvent.values();
+        LongAdder[] counters = new LongAdder[events.length];
+        for (GameEvent event : events) {
+            counters[event.ordinal()] = MetricsRegistry.getDefault()
+                    .counter("game.events." + event.name().toLowerCase(Locale.ROOT));
+        }
+        return counters;
+    }
+
     /**
      * Constructors
      * @param dictionaryPath Path to the dictionary file
      */
     public WeaverGame(String dictionaryPath) {
-        assert dictionaryPath != null && !dictionaryPath.isEmpty() : "Dictionary file path cannot be empty";
-
-        this.dictionary = loadDictionary(dictionaryPath);
-        assert !dictionary.isEmpty() : "Dictionary cannot be empty";
+        this(Lexicon.load(dictionaryPath));
+    }
 
-        this.gameHistory = new ArrayList<>();
-        this.showErrorMessage = true;
-        this.showPath = false;
-        this.useRandomWords = false;
+    /**
+     * Constructors
+     * @param lexicon Shared dictionary, e.g. from {@link Lexicon#load(String)}
+     */
+    public WeaverGame(Lexicon lexicon) {
+        this(lexicon, null);
     }
 
     /**
-     * Loading dictionary file
-     * @param path Dictionary file path
-     * @return Set of all valid words
+     * Constructors for a dictionary that can change while the game runs. Every
+     * game started takes a snapshot of the current version, so a reload only
+     * affects games started after it
+     * @param lexiconSource Current dictionary version, e.g. a {@link LexiconReloader}
      */
-    private Set<String> loadDictionary(String path) {
-        Set<String> words = new HashSet<>();
-        try (InputStream is = getClass().getClassLoader().getResourceAsStream(path);
-             BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                words.add(line.trim().toLowerCase());
-            }
-        } catch (IOException | NullPointerException e) {
-            e.printStackTrace();
-            System.err.println("Error loading dictionary file: " + path);
-        }
-        return words;
+    public WeaverGame(Supplier<Lexicon> lexiconSource) {
+        this(lexiconSource.get(), lexiconSource);
+    }
+
+    private WeaverGame(Lexicon lexicon, Supplier<Lexicon> lexiconSource) {
+        assert lexicon != null : "Lexicon cannot be null";
+
+        this.lexicon = lexicon;
+        this.lexiconSource = lexiconSource;
+        assert lexicon.size() > 0 : "Dictionary cannot be empty";
+        this.wordLength = lexicon.countWordsOfLength(Lexicon.DEFAULT_WORD_LENGTH) > 0
+                ? Lexicon.DEFAULT_WORD_LENGTH : lexicon.getWordLengths()[0];
+
+        this.history = new long[INITIAL_HISTORY_CAPACITY];
+        this.eventBus = new GameEventBus();
+        this.showErrorMessage = true;
+        this.showPath = false;
+        this.useRandomWords = false;
+        this.difficulty = Difficulty.MEDIUM;
     }
 
     /**
@@ -72,16 +125,95 @@ public class WeaverGame extends Observable {
      */
     public void initializeGame(String start, String target) {
         assert start != null && target != null : "The start and target words cannot be null";
+        refreshLexicon();
         assert start.length() == target.length() : "The start and target words must be the same length";
-        assert dictionary.contains(start.toLowerCase()) : "The starting word must be in the dictionary";
-        assert dictionary.contains(target.toLowerCase()) : "The target word must be in the dictionary";
+        assert lexicon.contains(start) : "The starting word must be in the dictionary";
+        assert lexicon.contains(target) : "The target word must be in the dictionary";
+        if (requireReachable && !lexicon.isReachable(start, target)) {
+            throw new IllegalArgumentException("The target word cannot be reached from the starting word");
+        }
+        useShard(start.length());
 
         this.startWord = start.toLowerCase();
         this.targetWord = target.toLowerCase();
-        gameHistory.clear();
-        gameHistory.add(startWord);
-        setChanged();
-        notifyObservers(GameEvent.GAME_INITIALIZED);
+        this.currentPacked = WordCodec.pack(startWord);
+        this.currentId = -1;
+        this.targetPacked = WordCodec.pack(targetWord);
+        historySize = 0;
+        appendHistory(currentPacked);
+        if (journal != null) {
+            journal.logGameInitialized(sessionId, wordLength,
+                    dictionary.indexOf(currentPacked), dictionary.indexOf(targetPacked));
+        }
+        fireEvent(GameEvent.GAME_INITIALIZED, null);
+    }
+
+    /**
+     * Take a snapshot of the current dictionary version for a new game
+     */
+    private void refreshLexicon() {
+        if (lexiconSource == null) {
+            return;
+        }
+        Lexicon latest = lexiconSource.get();
+        if (latest != lexicon) {
+            lexicon = latest;
+            shard = null;
+            dictionary = null;
+            wordFilter = null;
+        }
+    }
+
+    /**
+     * Switch to the shard of a word length, building it if no game used it yet
+     * @param length Word length
+     */
+    private void useShard(int length) {
+        wordLength = length;
+        if (shard == null || shard.getWordLength() != length) {
+            shard = lexicon.shard(length);
+            dictionary = shard.getDictionary();
+            wordFilter = useWordFilter ? shard.getWordFilter() : null;
+        }
+    }
+
+    /**
+     * Restore a journaled game start without events or journaling
+     * @param length Word length, selecting the shard the IDs belong to
+     * @param startId Start word ID
+     * @param targetId Target word ID
+     */
+    void restoreGame(int length, int startId, int targetId) {
+        useShard(length);
+        this.startWord = dictionary.wordAt(startId);
+        this.targetWord = dictionary.wordAt(targetId);
+        this.currentPacked = dictionary.packedAt(startId);
+        this.currentId = startId;
+        this.targetPacked = dictionary.packedAt(targetId);
+        historySize = 0;
+        appendHistory(currentPacked);
+    }
+
+    /**
+     * Restore a journaled move without validation, events or journaling
+     * @param wordId Word ID
+     */
+    void restoreMove(int wordId) {
+        currentPacked = dictionary.packedAt(wordId);
+        currentId = wordId;
+        appendHistory(currentPacked);
+    }
+
+    /**
+     * Initialize a game with a random solvable puzzle of the current difficulty and word length.
+     * Shards without ladders of that difficulty fall back to any solvable puzzle
+     * @throws IllegalStateException If no two words of the current length are connected
+     */
+    public void initializeRandomGame() {
+        refreshLexicon();
+        PuzzleGenerator.Puzzle puzzle = lexicon.shard(wordLength).getPuzzleGenerator()
+                .generateOrWiden(difficulty.getMinSteps(), difficulty.getMaxSteps(), getRandom());
+        initializeGame(puzzle.getStartWord(), puzzle.getTargetWord());
     }
 
     /**
@@ -91,59 +223,193 @@ public class WeaverGame extends Observable {
      */
     public boolean tryWord(String word) {
         assert word != null : "The input word cannot be empty";
-        assert !gameHistory.isEmpty() : "The game history cannot be empty";
+        assert historySize > 0 : "The game history cannot be empty";
 
-        word = word.toLowerCase();
+        if ((++moveCount & MOVE_SAMPLE_MASK) != 0) {
+            return applyWord(word);
+        }
+        long begin = System.nanoTime();
+        boolean accepted = applyWord(word);
+        TRY_WORD_LATENCY.record(System.nanoTime() - begin);
+        return accepted;
+    }
 
-        String current = getCurrentWord();
+    private boolean applyWord(String word) {
+        // Rejections keep the order of length, letter difference, dictionary; the
+        // filter only stands in front of the dictionary lookup, never changes the reason
         // Check that the word length is correct
-        if (word.length() != current.length()) {
-            setChanged();
-            notifyObservers(GameEvent.INVALID_LENGTH);
+        if (word.length() != WordCodec.length(currentPacked)) {
+            fireEvent(GameEvent.INVALID_LENGTH, word);
+            return false;
+        }
+
+        // Words with characters other than letters cannot be packed and are never in the dictionary
+        long packed = WordCodec.pack(word);
+        if (packed == WordCodec.INVALID) {
+            fireEvent(calculateDifference(currentPacked, word) != 1
+                    ? GameEvent.INVALID_DIFFERENCE : GameEvent.NOT_IN_DICTIONARY, word);
             return false;
         }
 
         // Check if only one letter has changed
-        if (calculateDifference(current, word) != 1) {
-            setChanged();
-            notifyObservers(GameEvent.INVALID_DIFFERENCE);
+        if (calculateDifference(currentPacked, packed) != 1) {
+            fireEvent(GameEvent.INVALID_DIFFERENCE, word);
+            return false;
+        }
+
+        // Definite non-words are turned away by the filter without a dictionary lookup
+        if (wordFilter != null && !wordFilter.mightContain(packed)) {
+            fireEvent(GameEvent.NOT_IN_DICTIONARY, word);
             return false;
         }
 
         // Checks if it's a valid word
-        if (!dictionary.contains(word)) {
-            setChanged();
-            notifyObservers(GameEvent.NOT_IN_DICTIONARY);
+        int id = dictionary.indexOf(packed);
+        if (id < 0) {
+            if (wordFilter != null) {
+                wordFilter.recordFalsePositive();
+            }
+            fireEvent(GameEvent.NOT_IN_DICTIONARY, word);
             return false;
         }
 
         // Add to history
-        gameHistory.add(word);
-        setChanged();
-        notifyObservers(GameEvent.WORD_ACCEPTED);
+        currentPacked = packed;
+        currentId = id;
+        appendHistory(packed);
+        if (journal != null) {
+            journal.logWordAccepted(sessionId, id);
+        }
+        fireEvent(GameEvent.WORD_ACCEPTED, null);
 
         if (hasWon()) {
-            setChanged();
-            notifyObservers(GameEvent.GAME_WON);
+            fireEvent(GameEvent.GAME_WON, null);
         }
         return true;
     }
 
-    private int calculateDifference(String a, String b) {
+    private int calculateDifference(long a, long b) {
+        return WordCodec.difference(a, b);
+    }
+
+    private int calculateDifference(long packed, String word) {
+        String current = WordCodec.unpack(packed);
         int diff = 0;
-        for (int i = 0; i < a.length(); i++) {
-            if (a.charAt(i) != b.charAt(i)) diff++;
+        for (int i = 0; i < current.length(); i++) {
+            if (current.charAt(i) != Character.toLowerCase(word.charAt(i))) diff++;
         }
         return diff;
     }
 
+    private void appendHistory(long packed) {
+        if (historySize == history.length) {
+            history = Arrays.copyOf(history, historySize * 2);
+        }
+        history[historySize++] = packed;
+    }
+
+    /**
+     * Publish an event to its subscribers. Delivery is synchronous, so the
+     * game's one update is refilled for every event and the current word
+     * stays packed; moves allocate nothing, observed or not. A listener that
+     * makes a move of its own gets a fresh update for it
+     * @param event Event type
+     * @param attempt Rejected word as typed, or null to report the current word
+     */
+    private void fireEvent(GameEvent event, String attempt) {
+        EVENT_COUNTS[event.ordinal()].increment();
+        if (eventBus.hasSubscribers(event)) {
+            GameUpdate update = publishing ? new GameUpdate() : this.update;
+            long word = attempt == null && historySize > 0 ? currentPacked : WordCodec.INVALID;
+            boolean nested = publishing;
+            publishing = true;
+            try {
+                eventBus.publish(update.set(event, attempt, word, Math.max(historySize - 1, 0)));
+            } finally {
+                publishing = nested;
+            }
+        }
+    }
+
+    /**
+     * Record game starts and accepted moves in a journal, so the session can
+     * be rebuilt with {@link GameJournal#recover} after a restart
+     * @param journal Journal, or null to stop journaling
+     * @param sessionId ID of this session in the journal
+     */
+    public void setJournal(GameJournal journal, long sessionId) {
+        this.journal = journal;
+        this.sessionId = sessionId;
+    }
+
+    /**
+     * Typed events of this game, e.g. subscribe(listener, GameEvent.WORD_ACCEPTED)
+     * @return Event bus
+     */
+    public GameEventBus getEventBus() {
+        return eventBus;
+    }
+
     /**
      * Check if the game is won
      * @return If win
      */
     public boolean hasWon() {
-        assert !gameHistory.isEmpty() : "The game history cannot be empty";
-        return gameHistory.get(gameHistory.size() - 1).equals(targetWord);
+        assert historySize > 0 : "The game history cannot be empty";
+        return currentPacked == targetPacked;
+    }
+
+    /**
+     * Best next word on an optimal ladder from the current word to the target
+     * @return Hint word, or null if the game is won or the target is unreachable
+     */
+    public String getHint() {
+        assert historySize > 0 : "The game history cannot be empty";
+        int next = shard.getHintEngine().nextStep(
+                dictionary.indexOf(currentPacked), dictionary.indexOf(targetPacked));
+        return next >= 0 ? dictionary.wordAt(next) : null;
+    }
+
+    /**
+     * Letters that can be typed next so the input can still become a valid
+     * move from the current word, for live keyboard feedback
+     * @param typed Letters typed so far, any case
+     * @return 26-bit letter mask, bit 0 for 'a'
+     */
+    public int getNextLetterMask(CharSequence typed) {
+        assert historySize > 0 : "The game history cannot be empty";
+        if (currentId < 0) {
+            currentId = dictionary.indexOf(currentPacked);
+        }
+        return shard.getReplacementMasks().nextLetters(
+                currentId, WordCodec.length(currentPacked), currentPacked, typed);
+    }
+
+    /**
+     * Optimal number of steps from the start word to the target word
+     * @return Par, or DistanceTable.UNREACHABLE
+     */
+    public int getParSteps() {
+        return distance(dictionary.indexOf(WordCodec.pack(getStartWord())), dictionary.indexOf(targetPacked));
+    }
+
+    /**
+     * Optimal number of steps still needed from the current word
+     * @return Remaining steps, or DistanceTable.UNREACHABLE
+     */
+    public int getRemainingSteps() {
+        assert historySize > 0 : "The game history cannot be empty";
+        return distance(dictionary.indexOf(currentPacked), dictionary.indexOf(targetPacked));
+    }
+
+    private int distance(int from, int to) {
+        DistanceTable table = shard.getDistanceTable();
+        if (table != null) {
+            return table.distance(from, to);
+        }
+        // Shards too large for a table search instead
+        WordGraph graph = shard.getWordGraph();
+        return new WeaverSolver(graph).shortestPath(graph.getWord(from), graph.getWord(to)).getLength();
     }
 
     /**
@@ -153,16 +419,26 @@ public class WeaverGame extends Observable {
      */
     public String getRandomWord(int length) {
         assert length > 0 : "Word length must be greater than 0";
-        assert !dictionary.isEmpty() : "Dictionary cannot be empty";
+        assert lexicon.countWordsOfLength(length) > 0 : "No word of the specified length was found";
 
-        List<String> wordsOfLength = dictionary.stream()
-                .filter(word -> word.length() == length)
-                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        return WordCodec.unpack(lexicon.randomPackedWord(length, getRandom()));
+    }
 
-        assert !wordsOfLength.isEmpty() : "No word of the specified length was found";
+    /**
+     * Source of randomness for random words, the calling thread's
+     * ThreadLocalRandom unless a generator was set
+     * @return Random generator
+     */
+    public RandomGenerator getRandom() {
+        return random != null ? random : ThreadLocalRandom.current();
+    }
 
-        Random random = new Random();
-        return wordsOfLength.get(random.nextInt(wordsOfLength.size()));
+    /**
+     * Use a specific generator, e.g. a seeded SplittableRandom for reproducible runs
+     * @param random Random generator, or null for ThreadLocalRandom
+     */
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
     }
 
     // Getters and setters with assertions
@@ -176,13 +452,115 @@ public class WeaverGame extends Observable {
         return targetWord;
     }
 
+    /**
+     * Snapshot of the shared dictionary the current game validates against
+     * @return Lexicon
+     */
+    public Lexicon getLexicon() {
+        return lexicon;
+    }
+
+    /**
+     * Words of the current game's length with their graph and indexes. Before
+     * the first game this is the shard of the configured word length
+     * @return Lexicon shard
+     */
+    public LexiconShard getShard() {
+        return shard != null ? shard : lexicon.shard(wordLength);
+    }
+
+    /**
+     * Packed words of the current game's length
+     * @return Dictionary of all valid words of that length
+     */
+    public PackedDictionary getDictionary() {
+        return getShard().getDictionary();
+    }
+
+    /**
+     * One-letter-neighbour graph of the current game's length
+     * @return Word graph
+     */
+    public WordGraph getWordGraph() {
+        return getShard().getWordGraph();
+    }
+
+    /**
+     * Word length of the current game, and of the next random game
+     * @return Word length
+     */
+    public int getWordLength() {
+        return wordLength;
+    }
+
+    /**
+     * Length of the words in the next random game. Starting a game with
+     * explicit words switches to their length
+     * @param wordLength Word length
+     */
+    public void setWordLength(int wordLength) {
+        assert lexicon.countWordsOfLength(wordLength) > 0 : "No word of the specified length was found";
+        this.wordLength = wordLength;
+    }
+
+    /**
+     * Copy of the words played so far, decoded on every call. Prefer
+     * {@link #getHistorySize()} and {@link #getHistoryPacked(int)} on hot paths
+     * @return Words from the start word to the current word
+     */
     public List<String> getGameHistory() {
-        assert gameHistory != null : "Game history is uninitialized";
-        return new ArrayList<>(gameHistory);
+        List<String> words = new ArrayList<>(historySize);
+        for (int i = 0; i < historySize; i++) {
+            words.add(WordCodec.unpack(history[i]));
+        }
+        return words;
+    }
+
+    /**
+     * Number of words played so far, including the start word
+     * @return History size
+     */
+    public int getHistorySize() {
+        return historySize;
+    }
+
+    /**
+     * Number of accepted moves since the game started
+     * @return Steps taken
+     */
+    public int getStepCount() {
+        assert historySize > 0 : "The game history cannot be empty";
+        return historySize - 1;
+    }
+
+    /**
+     * Packed word at a position in the history, without decoding it
+     * @param index Position, 0 for the start word
+     * @return Packed word, see {@link WordCodec}
+     */
+    public long getHistoryPacked(int index) {
+        assert index >= 0 && index < historySize : "History index out of range";
+        return history[index];
+    }
+
+    /**
+     * Current word packed, see {@link WordCodec}
+     * @return Packed current word
+     */
+    public long getCurrentPacked() {
+        return currentPacked;
+    }
+
+    /**
+     * Target word packed, see {@link WordCodec}
+     * @return Packed target word
+     */
+    public long getTargetPacked() {
+        return targetPacked;
     }
 
     public String getCurrentWord() {
-        return gameHistory.get(gameHistory.size() - 1);
+        return WordCodec.unpack(currentPacked);
     }
 
     public boolean isShowErrorMessage() {
@@ -199,8 +577,7 @@ public class WeaverGame extends Observable {
 
     public void setShowPath(boolean showPath) {
         this.showPath = showPath;
-        setChanged();
-        notifyObservers(GameEvent.SETTINGS_CHANGED);
+        fireEvent(GameEvent.SETTINGS_CHANGED, null);
     }
 
     public boolean isUseRandomWords() {
@@ -210,4 +587,40 @@ public class WeaverGame extends Observable {
     public void setUseRandomWords(boolean useRandomWords) {
         this.useRandomWords = useRandomWords;
     }
+
+    public boolean isUseWordFilter() {
+        return useWordFilter;
+    }
+
+    /**
+     * Check guesses against the shard's Bloom filter before the dictionary,
+     * worthwhile where many guesses are non-words, e.g. on the server
+     * @param useWordFilter If the filter pre-check is used
+     */
+    public void setUseWordFilter(boolean useWordFilter) {
+        this.useWordFilter = useWordFilter;
+        wordFilter = useWordFilter && shard != null ? shard.getWordFilter() : null;
+    }
+
+    public boolean isRequireReachable() {
+        return requireReachable;
+    }
+
+    /**
+     * Reject start and target pairs without a ladder between them. The check
+     * is a component lookup, so it costs no search
+     * @param requireReachable If unreachable pairs are rejected
+     */
+    public void setRequireReachable(boolean requireReachable) {
+        this.requireReachable = requireReachable;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(Difficulty difficulty) {
+        assert difficulty != null : "Difficulty cannot be null";
+        this.difficulty = difficulty;
+    }
 }
\ No newline at end of file
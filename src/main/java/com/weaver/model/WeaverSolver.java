@@ -0,0 +1,67 @@
+package com.weaver.model;
+
+import com.weaver.metrics.ConcurrentLatencyHistogram;
+import com.weaver.metrics.MetricsRegistry;
+
+import java.util.Collections;
+
+/**
+ * WeaverSolver finds the shortest word ladder between two words using a
+ * pluggable search strategy, bidirectional breadth-first search by default
+ */
+public class WeaverSolver {
+    private static final ConcurrentLatencyHistogram SEARCH_LATENCY =
+            MetricsRegistry.getDefault().histogram("solver.shortest_path.latency");
+
+    private final WordGraph graph;
+    private final SearchStrategy strategy;
+
+    /**
+     * Constructors
+     * @param graph One-letter-neighbour graph of the dictionary
+     */
+    public WeaverSolver(WordGraph graph) {
+        this(graph, new BidirectionalBfsStrategy());
+    }
+
+    /**
+     * Constructors
+     * @param graph One-letter-neighbour graph of the dictionary
+     * @param strategy Search algorithm to use
+     */
+    public WeaverSolver(WordGraph graph, SearchStrategy strategy) {
+        assert graph != null : "Word graph cannot be null";
+        assert strategy != null : "Search strategy cannot be null";
+        this.graph = graph;
+        this.strategy = strategy;
+    }
+
+    /**
+     * Find an optimal ladder from start to target
+     * @param start Start Word
+     * @param target Target Word
+     * @return Search result holding the path and search statistics
+     */
+    public SolverResult shortestPath(String start, String target) {
+        assert start != null && target != null : "The start and target words cannot be null";
+
+        long begin = System.nanoTime();
+        int startId = graph.indexOf(start);
+        int targetId = graph.indexOf(target);
+        SolverResult result;
+        if (startId < 0 || targetId < 0) {
+            result = new SolverResult(Collections.emptyList(), 0);
+        } else if (startId == targetId) {
+            result = new SolverResult(Collections.singletonList(graph.getWord(startId)), 0);
+        } else {
+            result = strategy.search(graph, startId, targetId);
+        }
+        long elapsed = System.nanoTime() - begin;
+        SEARCH_LATENCY.record(elapsed);
+        return result.withElapsedNanos(elapsed);
+    }
+
+    public SearchStrategy getStrategy() {
+        return strategy;
+    }
+}
@@ -0,0 +1,109 @@
+package com.weaver.model;
+
+/**
+ * WordCodec packs lowercase words into a single long, five bits per letter.
+ * Letters are stored as 1..26 with the first letter in the highest lane, so a
+ * zero lane means "no letter" and packed words of the same length sort in the
+ * same order as the strings they encode
+ */
+public final class WordCodec {
+    /** Longest word that fits into the 60 usable bits of a long */
+    public static final int MAX_LENGTH = 12;
+    /** Returned by {@link #pack(CharSequence)} for words that cannot be encoded */
+    public static final long INVALID = -1;
+
+    private static final int BITS_PER_LETTER = 5;
+    private static final int LETTER_MASK = 0x1F;
+    // Lowest bit of each of the twelve 5-bit lanes
+    private static final long LANE_LOW_BITS = 0x0084210842108421L;
+
+    private WordCodec() {
+    }
+
+    /**
+     * Encode a word, ignoring letter case
+     * @param word Word of 1 to MAX_LENGTH ASCII letters
+     * @return Packed word, or INVALID if the word has other characters or is too long
+     */
+    public static long pack(CharSequence word) {
+        int length = word.length();
+        if (length == 0 || length > MAX_LENGTH) {
+            return INVALID;
+        }
+        long packed = 0;
+        for (int i = 0; i < length; i++) {
+            int c = word.charAt(i) | 0x20; // ASCII lower case
+            if (c < 'a' || c > 'z') {
+                return INVALID;
+            }
+            packed = (packed << BITS_PER_LETTER) | (c - 'a' + 1);
+        }
+        return packed;
+    }
+
+    /**
+     * Decode a packed word
+     * @param packed Packed word
+     * @return Lowercase word
+     */
+    public static String unpack(long packed) {
+        assert packed > 0 : "Not a packed word";
+        int length = length(packed);
+        char[] letters = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            letters[i] = (char) ('a' - 1 + (int) (packed & LETTER_MASK));
+            packed >>>= BITS_PER_LETTER;
+        }
+        return new String(letters);
+    }
+
+    /**
+     * @param packed Packed word
+     * @return Number of letters
+     */
+    public static int length(long packed) {
+        return (64 - Long.numberOfLeadingZeros(packed) + BITS_PER_LETTER - 1) / BITS_PER_LETTER;
+    }
+
+    /**
+     * Letter at a position, counted from the start of the word
+     * @param packed Packed word
+     * @param length Word length
+     * @param position Position from 0 to length - 1
+     * @return Letter from 1 ('a') to 26 ('z')
+     */
+    public static int letterAt(long packed, int length, int position) {
+        return (int) (packed >>> shift(length, position)) & LETTER_MASK;
+    }
+
+    /**
+     * Replace the letter at a position
+     * @param packed Packed word
+     * @param length Word length
+     * @param position Position from 0 to length - 1
+     * @param letter Letter from 1 ('a') to 26 ('z')
+     * @return Packed word with the letter replaced
+     */
+    public static long withLetter(long packed, int length, int position, int letter) {
+        int shift = shift(length, position);
+        return (packed & ~((long) LETTER_MASK << shift)) | ((long) letter << shift);
+    }
+
+    /**
+     * Number of positions at which two packed words differ: the XOR leaves a
+     * non-zero lane for every different letter, each lane is folded onto its
+     * lowest bit and the lanes are counted with a single popcount
+     * @param a Packed word
+     * @param b Packed word
+     * @return Letter difference
+     */
+    public static int difference(long a, long b) {
+        long x = a ^ b;
+        x |= (x >>> 1) | (x >>> 2) | (x >>> 3) | (x >>> 4);
+        return Long.bitCount(x & LANE_LOW_BITS);
+    }
+
+    private static int shift(int length, int position) {
+        return (length - 1 - position) * BITS_PER_LETTER;
+    }
+}
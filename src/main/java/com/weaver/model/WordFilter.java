@@ -0,0 +1,136 @@
+package com.weaver.model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Blocked Bloom filter over the packed words of a dictionary. Every word
+ * sets a few bits inside one 64-bit block, so a query is one hash, one
+ * memory read and a mask test, and a "no" is definite. It sits in front of
+ * the dictionary lookup so that non-words, the bulk of invalid guesses from
+ * bots and abusive clients, never reach the larger hash table. Counters
+ * record how many lookups were saved and how often the filter let a
+ * non-word through
+ */
+public class WordFilter {
+    /** Filter bits per dictionary word, about 1% false positives */
+    public static final int DEFAULT_BITS_PER_WORD = 12;
+
+    private static final int BITS_PER_PROBE = 6;
+    // Five probes use the low 30 bits, clear of the 32 bits that pick the block
+    private static final int PROBES = 5;
+
+    private final long[] blocks;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    private WordFilter(long[] blocks) {
+        this.blocks = blocks;
+    }
+
+    /**
+     * Build a filter holding every word of a dictionary
+     * @param dictionary Packed dictionary
+     * @param bitsPerWord Filter bits per word; more bits, fewer false positives
+     * @return Filter
+     */
+    public static WordFilter build(PackedDictionary dictionary, int bitsPerWord) {
+        assert bitsPerWord > 0 : "Bits per word must be greater than 0";
+        int blockCount = (int) Math.max(1, ((long) dictionary.size() * bitsPerWord + 63) / 64);
+        long[] blocks = new long[blockCount];
+        for (int id = 0; id < dictionary.size(); id++) {
+            long hash = hash(dictionary.packedAt(id));
+            blocks[block(hash, blockCount)] |= bits(hash);
+        }
+        return new WordFilter(blocks);
+    }
+
+    /**
+     * Check if a word may be in the dictionary. A false result is definite
+     * and is counted as a saved dictionary lookup
+     * @param packed Packed word
+     * @return If the word may be in the dictionary
+     */
+    public boolean mightContain(long packed) {
+        long hash = hash(packed);
+        long bits = bits(hash);
+        if ((blocks[block(hash, blocks.length)] & bits) != bits) {
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Report that a word the filter let through was not in the dictionary
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    private static long hash(long packed) {
+        // Murmur3 finalizer: every input bit affects every output bit
+        long h = packed * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Block of a hash, from the high 32 bits by multiply-shift instead of a modulo
+     */
+    private static int block(long hash, int blockCount) {
+        return (int) (((hash >>> 32) * blockCount) >>> 32);
+    }
+
+    /**
+     * Bits of a hash within its block, one per probe from the low 32 bits
+     */
+    private static long bits(long hash) {
+        long bits = 0;
+        for (int i = 0; i < PROBES; i++) {
+            bits |= 1L << (hash >>> (i * BITS_PER_PROBE));
+        }
+        return bits;
+    }
+
+    /**
+     * Number of definite non-words rejected without a dictionary lookup
+     * @return Saved lookups
+     */
+    public long getSavedLookups() {
+        return rejected.sum();
+    }
+
+    /**
+     * Number of non-words the filter let through to the dictionary
+     * @return False positive count
+     */
+    public long getFalsePositives() {
+        return falsePositives.sum();
+    }
+
+    /**
+     * Share of the non-words seen so far that the filter failed to reject
+     * @return False positive rate between 0 and 1
+     */
+    public double getFalsePositiveRate() {
+        long misses = falsePositives.sum();
+        long nonWords = misses + rejected.sum();
+        return nonWords == 0 ? 0 : (double) misses / nonWords;
+    }
+
+    /**
+     * Heap used by the filter bits
+     * @return Size in bytes
+     */
+    public long getMemoryFootprint() {
+        return (16L + 8L * blocks.length + 7) & ~7L;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WordFilter[%d KB, %d lookups saved, %.2f%% false positives]",
+                getMemoryFootprint() / 1024, getSavedLookups(), getFalsePositiveRate() * 100);
+    }
+}
@@ -0,0 +1,266 @@
+package com.weaver.model;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * WordGraph is the one-letter-neighbour graph of the dictionary.
+ * Words are identified by their packed dictionary IDs and the
+ * neighbours are stored in compressed sparse row form: the neighbours of
+ * word {@code id} are {@code edges[offsets[id]] .. edges[offsets[id + 1] - 1]}
+ */
+public class WordGraph {
+    // Bucket keys keep the word ID in their low bits, see bucketKey
+    private static final int ID_BITS = 28;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+    private static final int POSITION_BITS = 4;
+    private static final int POSITION_MASK = (1 << POSITION_BITS) - 1;
+
+    private final PackedDictionary dictionary;
+    private final int[] offsets;
+    private final int[] edges;
+
+    private WordGraph(PackedDictionary dictionary, int[] offsets, int[] edges) {
+        this.dictionary = dictionary;
+        this.offsets = offsets;
+        this.edges = edges;
+    }
+
+    /**
+     * Build the graph from wildcard buckets: every word is filed under each of
+     * its patterns with one position blanked (e.g. s_ul), and two words are
+     * neighbours exactly when they share a pattern. The bucket keys are
+     * filled, sorted and turned into edges in parallel on the fork-join pool,
+     * so the build stays near-linear in the number of letters. Long patterns
+     * are hashed into the key, so members of a bucket are compared before
+     * they become neighbours
+     * @param dictionary Packed dictionary, whose word IDs become the graph's IDs
+     * @return Word graph
+     */
+    public static WordGraph build(PackedDictionary dictionary) {
+        assert dictionary != null : "Dictionary cannot be null";
+        assert dictionary.size() <= ID_MASK : "Too many words for the bucket keys";
+
+        int size = dictionary.size();
+        // First key slot of every word, one slot per letter
+        int[] keyOffsets = new int[size + 1];
+        for (int id = 0; id < size; id++) {
+            keyOffsets[id + 1] = keyOffsets[id] + WordCodec.length(dictionary.packedAt(id));
+        }
+
+        // Sorting by pattern, then by ID, makes every bucket a contiguous run
+        long[] keys = new long[keyOffsets[size]];
+        IntStream.range(0, size).parallel().forEach(id -> {
+            long word = dictionary.packedAt(id);
+            int length = WordCodec.length(word);
+            for (int i = 0; i < length; i++) {
+                keys[keyOffsets[id] + i] = bucketKey(word, length, i) | id;
+            }
+        });
+        Arrays.parallelSort(keys);
+
+        // Record where each word's bucket for each position starts; every
+        // bucket is handled by the task that owns its first key
+        int[] bucketStarts = new int[keys.length];
+        IntStream.range(0, keys.length).parallel().forEach(k -> {
+            long bucket = keys[k] & ~ID_MASK;
+            if (k > 0 && (keys[k - 1] & ~ID_MASK) == bucket) return;
+            for (int member = k; member < keys.length && (keys[member] & ~ID_MASK) == bucket; member++) {
+                int id = (int) (keys[member] & ID_MASK);
+                bucketStarts[keyOffsets[id] + (int) (bucket >>> ID_BITS & POSITION_MASK)] = k;
+            }
+        });
+
+        // Each word only writes its own degree and its own edge slots
+        int[] offsets = new int[size + 1];
+        IntStream.range(0, size).parallel().forEach(id -> {
+            int degree = 0;
+            for (int slot = keyOffsets[id]; slot < keyOffsets[id + 1]; slot++) {
+                int k = bucketStarts[slot];
+                long bucket = keys[k] & ~ID_MASK;
+                for (; k < keys.length && (keys[k] & ~ID_MASK) == bucket; k++) {
+                    int neighbour = (int) (keys[k] & ID_MASK);
+                    if (neighbour != id
+                            && (bucket >= 0 || sharesPattern(dictionary, id, neighbour, slot - keyOffsets[id]))) {
+                        degree++;
+                    }
+                }
+            }
+            offsets[id + 1] = degree;
+        });
+        Arrays.parallelPrefix(offsets, Integer::sum);
+
+        int[] edges = new int[offsets[size]];
+        IntStream.range(0, size).parallel().forEach(id -> {
+            int edge = offsets[id];
+            for (int slot = keyOffsets[id]; slot < keyOffsets[id + 1]; slot++) {
+                int k = bucketStarts[slot];
+                long bucket = keys[k] & ~ID_MASK;
+                for (; k < keys.length && (keys[k] & ~ID_MASK) == bucket; k++) {
+                    int neighbour = (int) (keys[k] & ID_MASK);
+                    if (neighbour != id
+                            && (bucket >= 0 || sharesPattern(dictionary, id, neighbour, slot - keyOffsets[id]))) {
+                        edges[edge++] = neighbour;
+                    }
+                }
+            }
+        });
+        return new WordGraph(dictionary, offsets, edges);
+    }
+
+    /**
+     * Reference build probing every one-letter substitution of every word in
+     * the dictionary, 25 lookups per letter on one thread
+     * @param dictionary Packed dictionary, whose word IDs become the graph's IDs
+     * @return Word graph, identical to {@link #build(PackedDictionary)}
+     */
+    static WordGraph buildByProbing(PackedDictionary dictionary) {
+        assert dictionary != null : "Dictionary cannot be null";
+
+        int size = dictionary.size();
+        int[] offsets = new int[size + 1];
+        int[] edges = new int[Math.max(16, size * 4)];
+        int edgeCount = 0;
+        for (int id = 0; id < size; id++) {
+            offsets[id] = edgeCount;
+            long word = dictionary.packedAt(id);
+            int length = WordCodec.length(word);
+            for (int i = 0; i < length; i++) {
+                int original = WordCodec.letterAt(word, length, i);
+                for (int letter = 1; letter <= 26; letter++) {
+                    if (letter == original) continue;
+                    int neighbour = dictionary.indexOf(WordCodec.withLetter(word, length, i, letter));
+                    if (neighbour >= 0) {
+                        if (edgeCount == edges.length) {
+                            edges = Arrays.copyOf(edges, edges.length * 2);
+                        }
+                        edges[edgeCount++] = neighbour;
+                    }
+                }
+            }
+        }
+        offsets[size] = edgeCount;
+        return new WordGraph(dictionary, offsets, Arrays.copyOf(edges, edgeCount));
+    }
+
+    /**
+     * Bucket of a word with one position blanked, in the high bits of a key
+     * whose low bits hold the word ID. The blanked position is part of the
+     * key so patterns of different lengths can never collide. Patterns of
+     * words up to six letters fit in 30 bits and are stored as they are; longer
+     * ones are hashed into 31 bits with the top bit set, so their keys are
+     * negative and their buckets are checked with {@link #sharesPattern}
+     */
+    private static long bucketKey(long word, int length, int position) {
+        long pattern = WordCodec.withLetter(word, length, position, 0);
+        if (pattern >>> 30 != 0) {
+            pattern = (1L << 31) | (pattern * 0x9E3779B97F4A7C15L) >>> 33;
+        }
+        return ((pattern << POSITION_BITS) | position) << ID_BITS;
+    }
+
+    /**
+     * Check if two words of a bucket really are the same pattern, which only
+     * fails for long patterns whose hashes collide
+     */
+    private static boolean sharesPattern(PackedDictionary dictionary, int a, int b, int position) {
+        long x = dictionary.packedAt(a);
+        long y = dictionary.packedAt(b);
+        return WordCodec.withLetter(x, WordCodec.length(x), position, 0)
+                == WordCodec.withLetter(y, WordCodec.length(y), position, 0);
+    }
+
+    /**
+     * Wrap prebuilt CSR arrays, e.g. read from a dictionary image
+     * @param dictionary Packed dictionary the IDs refer to
+     * @param offsets Edge offsets, one more entry than there are words
+     * @param edges Neighbour IDs
+     * @return Word graph
+     */
+    static WordGraph of(PackedDictionary dictionary, int[] offsets, int[] edges) {
+        assert offsets.length == dictionary.size() + 1 : "Offsets do not match the dictionary";
+        assert offsets[dictionary.size()] == edges.length : "Offsets do not match the edges";
+        return new WordGraph(dictionary, offsets, edges);
+    }
+
+    /**
+     * Number of words in the graph
+     * @return Word count
+     */
+    public int size() {
+        return dictionary.size();
+    }
+
+    /**
+     * Number of directed edges, i.e. twice the number of neighbour pairs
+     * @return Edge count
+     */
+    public int edgeCount() {
+        return edges.length;
+    }
+
+    /**
+     * Look up the ID of a word, ignoring letter case
+     * @param word Word
+     * @return Word ID, or -1 if the word is not in the graph
+     */
+    public int indexOf(String word) {
+        return dictionary.indexOf(WordCodec.pack(word));
+    }
+
+    public String getWord(int id) {
+        return dictionary.wordAt(id);
+    }
+
+    public PackedDictionary getDictionary() {
+        return dictionary;
+    }
+
+    public int degree(int id) {
+        return offsets[id + 1] - offsets[id];
+    }
+
+    /**
+     * First edge slot of a word, for allocation-free iteration together
+     * with {@link #edgeEnd(int)} and {@link #edgeTarget(int)}
+     * @param id Word ID
+     * @return Index of the first edge
+     */
+    public int edgeStart(int id) {
+        return offsets[id];
+    }
+
+    /**
+     * @param id Word ID
+     * @return Index one past the last edge of the word
+     */
+    public int edgeEnd(int id) {
+        return offsets[id + 1];
+    }
+
+    /**
+     * @param edge Edge index between edgeStart and edgeEnd
+     * @return Word ID the edge points to
+     */
+    public int edgeTarget(int edge) {
+        return edges[edge];
+    }
+
+    /**
+     * Heap used by the graph, counting the CSR arrays and the packed words
+     * @return Size in bytes
+     */
+    public long getMemoryFootprint() {
+        return intArrayBytes(offsets.length) + intArrayBytes(edges.length) + dictionary.getMemoryFootprint();
+    }
+
+    private static long intArrayBytes(int length) {
+        return (16L + 4L * length + 7) & ~7L;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WordGraph[%d words, %d edges, ~%d KB]",
+                size(), edgeCount(), getMemoryFootprint() / 1024);
+    }
+}
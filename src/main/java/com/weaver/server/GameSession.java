@@ -0,0 +1,242 @@
+package com.weaver.server;
+
+import com.weaver.model.GameJournal;
+import com.weaver.model.GameUpdate;
+import com.weaver.model.Lexicon;
+import com.weaver.model.WeaverGame;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * One client connection of the game server with its own WeaverGame. The
+ * protocol is line based and mirrors the CLI: every request line gets
+ * exactly one response line
+ * <pre>
+ * START [start target]   new game, random when no words are given
+ * START length           random game with words of the given length
+ * GUESS word | word      play a word
+ * HINT                   next word on an optimal ladder
+ * STATE                  start, target, current word and steps
+ * SESSION                ID of this session in the journal, needed to resume it
+ * RESUME id              continue a session recovered from the journal
+ * QUIT                   close the session
+ * </pre>
+ */
+public class GameSession implements Runnable {
+    /** System property turning on the Bloom filter pre-check of guesses, see {@link WeaverGame#setUseWordFilter} */
+    public static final String WORD_FILTER_PROPERTY = "weaver.server.word.filter";
+
+    // Small buffers keep idle sessions cheap; requests are single short lines
+    private static final int BUFFER_SIZE = 256;
+    private static final int MAX_LINE_LENGTH = 128;
+
+    private final Socket socket;
+    // ID the game is journaled under; RESUME switches it to the resumed session's
+    private long sessionId;
+    private final GameJournal journal;
+    private final Map<Long, WeaverGame> recovered;
+    private final Runnable onClose;
+    private WeaverGame game;
+    // Reason of the last rejected guess, delivered synchronously by the game
+    private WeaverGame.GameEvent rejection;
+    private boolean open;
+
+    /**
+     * Constructors
+     * @param socket Client connection, or null when driven through {@link #handle(String)}
+     * @param lexicon Dictionary shared by all sessions
+     * @param onClose Called once when the session ends, or null
+     */
+    public GameSession(Socket socket, Lexicon lexicon, Runnable onClose) {
+        this(socket, () -> lexicon, 0, null, null, onClose);
+    }
+
+    /**
+     * Constructors
+     * @param socket Client connection, or null when driven through {@link #handle(String)}
+     * @param lexicons Current version of the dictionary shared by all sessions
+     * @param sessionId ID of this session in the journal
+     * @param journal Journal recording the session, or null
+     * @param recovered Sessions recovered from the journal that clients may resume, or null
+     * @param onClose Called once when the session ends, or null
+     */
+    public GameSession(Socket socket, Supplier<Lexicon> lexicons, long sessionId, GameJournal journal,
+                       Map<Long, WeaverGame> recovered, Runnable onClose) {
+        assert lexicons != null : "Lexicon cannot be null";
+        this.socket = socket;
+        this.journal = journal;
+        this.recovered = recovered;
+        this.onClose = onClose;
+        adopt(new WeaverGame(lexicons), sessionId);
+        this.open = true;
+    }
+
+    private void adopt(WeaverGame adopted, long id) {
+        adopted.setRequireReachable(true);
+        // Off by default: measured moves were no faster with it, as the dictionary lookup is already cheap
+        adopted.setUseWordFilter(Boolean.getBoolean(WORD_FILTER_PROPERTY));
+        adopted.setJournal(journal, id);
+        this.sessionId = id;
+        adopted.getEventBus().subscribe(this::onRejected, WeaverGame.GameEvent.INVALID_LENGTH,
+                WeaverGame.GameEvent.INVALID_DIFFERENCE, WeaverGame.GameEvent.NOT_IN_DICTIONARY);
+        this.game = adopted;
+    }
+
+    private void onRejected(GameUpdate update) {
+        rejection = update.getEvent();
+    }
+
+    @Override
+    public void run() {
+        try (Socket client = socket;
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(client.getInputStream(), StandardCharsets.US_ASCII), BUFFER_SIZE);
+             Writer out = new BufferedWriter(
+                     new OutputStreamWriter(client.getOutputStream(), StandardCharsets.US_ASCII), BUFFER_SIZE)) {
+            out.write("WELCOME Weaver\n");
+            out.flush();
+            String line;
+            while (open && (line = in.readLine()) != null) {
+                out.write(handle(line));
+                out.write('\n');
+                out.flush();
+            }
+        } catch (IOException e) {
+            // The client went away; nothing to report back
+        } finally {
+            if (onClose != null) {
+                onClose.run();
+            }
+        }
+    }
+
+    /**
+     * Execute one request line
+     * @param line Request
+     * @return Response line without the line terminator
+     */
+    public String handle(String line) {
+        if (line.length() > MAX_LINE_LENGTH) {
+            return "ERR line too long";
+        }
+        String[] parts = line.trim().split("\\s+");
+        String command = parts[0].toUpperCase(Locale.ROOT);
+        try {
+            switch (command) {
+                case "START":
+                    return start(parts);
+                case "GUESS":
+                    return parts.length == 2 ? guess(parts[1]) : "ERR usage: GUESS word";
+                case "HINT":
+                    return hint();
+                case "STATE":
+                    return state();
+                case "SESSION":
+                    return "SESSION " + sessionId;
+                case "RESUME":
+                    return parts.length == 2 ? resume(parts[1]) : "ERR usage: RESUME id";
+                case "QUIT":
+                    open = false;
+                    return "BYE";
+                case "":
+                    return "ERR empty request";
+                default:
+                    // A bare word is a guess, as in the CLI
+                    return parts.length == 1 ? guess(parts[0]) : "ERR unknown command " + command;
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return "ERR " + e.getMessage();
+        }
+    }
+
+    private String start(String[] parts) {
+        if (parts.length == 1) {
+            game.initializeRandomGame();
+        } else if (parts.length == 2) {
+            int length = Integer.parseInt(parts[1]);
+            if (game.getLexicon().countWordsOfLength(length) == 0) {
+                return "ERR no words of length " + length;
+            }
+            int previousLength = game.getWordLength();
+            game.setWordLength(length);
+            try {
+                game.initializeRandomGame();
+            } catch (IllegalStateException e) {
+                // Keep playing the current game at its own length
+                game.setWordLength(previousLength);
+                throw e;
+            }
+        } else if (parts.length == 3) {
+            String start = parts[1].toLowerCase(Locale.ROOT);
+            String target = parts[2].toLowerCase(Locale.ROOT);
+            if (start.length() != target.length()) {
+                return "ERR the start and target words must be the same length";
+            }
+            if (!game.getLexicon().contains(start) || !game.getLexicon().contains(target)) {
+                return "ERR the start and target words must be in the dictionary";
+            }
+            game.initializeGame(start, target);
+        } else {
+            return "ERR usage: START [start target | length]";
+        }
+        return "OK " + game.getStartWord() + " " + game.getTargetWord();
+    }
+
+    private String resume(String id) {
+        WeaverGame resumed = recovered == null ? null : recovered.remove(Long.parseLong(id));
+        if (resumed == null) {
+            return "ERR no recovered session " + id;
+        }
+        // Later moves are journaled under the resumed session's ID
+        adopt(resumed, Long.parseLong(id));
+        return state();
+    }
+
+    private String guess(String word) {
+        requireGame();
+        if (game.hasWon()) {
+            return "ERR the game is already won";
+        }
+        rejection = null;
+        if (!game.tryWord(word)) {
+            return "REJECTED " + rejection;
+        }
+        return (game.hasWon() ? "WON " : "ACCEPTED ") + game.getCurrentWord() + " " + game.getStepCount();
+    }
+
+    private String hint() {
+        requireGame();
+        String hint = game.getHint();
+        return hint != null ? "HINT " + hint : "ERR no hint available";
+    }
+
+    private String state() {
+        requireGame();
+        return "STATE " + game.getStartWord() + " " + game.getTargetWord() + " "
+                + game.getCurrentWord() + " " + game.getStepCount();
+    }
+
+    private void requireGame() {
+        if (game.getHistorySize() == 0) {
+            throw new IllegalStateException("no game, send START first");
+        }
+    }
+
+    /**
+     * Check if the client has not quit yet
+     * @return If open
+     */
+    public boolean isOpen() {
+        return open;
+    }
+}
@@ -0,0 +1,224 @@
+package com.weaver.server;
+
+import com.weaver.model.GameJournal;
+import com.weaver.model.Lexicon;
+import com.weaver.model.LexiconReloader;
+import com.weaver.model.WeaverGame;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Headless multi-session game server. Every connection is served by its own
+ * thread running a {@link GameSession}; all sessions share one immutable
+ * {@link Lexicon}, or the current version from a {@link LexiconReloader}
+ * so the dictionary can change while the server runs. With a journal, every
+ * session is recorded and sessions from before a restart can be resumed by
+ * ID. Session IDs are drawn at random, so the ID a client is given is the
+ * token that lets it, and only it, resume the session. Virtual threads are
+ * used when the runtime has them (Java 21+), otherwise platform threads with
+ * a small stack
+ */
+public class WeaverServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 7070;
+
+    // Sessions only parse short lines and validate moves, so a small stack is plenty
+    private static final long PLATFORM_STACK_SIZE = 256 * 1024;
+    private static final int BACKLOG = 1024;
+
+    private final Supplier<Lexicon> lexicons;
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions;
+    private final boolean virtualThreads;
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final Thread acceptor;
+    private final GameJournal journal;
+    private final Map<Long, WeaverGame> recovered;
+    // Unguessable IDs: a sequential ID would let any client resume another's session
+    private final SecureRandom sessionIds = new SecureRandom();
+
+    /**
+     * Bind the server and start accepting connections
+     * @param lexicon Dictionary shared by all sessions
+     * @param address Address to bind, e.g. the loopback address
+     * @param port Port, 0 for any free port
+     * @throws IOException If the port cannot be bound
+     */
+    public WeaverServer(Lexicon lexicon, InetAddress address, int port) throws IOException {
+        this(lexicon, address, port, null);
+    }
+
+    /**
+     * Bind the server, recover journaled sessions and start accepting connections
+     * @param lexicon Dictionary shared by all sessions
+     * @param address Address to bind, e.g. the loopback address
+     * @param port Port, 0 for any free port
+     * @param journalFile Journal to recover from and append to, or null for none
+     * @throws IOException If the port cannot be bound or the journal cannot be opened
+     */
+    public WeaverServer(Lexicon lexicon, InetAddress address, int port, Path journalFile) throws IOException {
+        this(() -> lexicon, lexicon, address, port, journalFile);
+    }
+
+    /**
+     * Bind a server whose sessions start new games on the latest dictionary
+     * version. There is no journal: journaled word IDs only hold for one version
+     * @param reloader Current version of the dictionary
+     * @param address Address to bind, e.g. the loopback address
+     * @param port Port, 0 for any free port
+     * @throws IOException If the port cannot be bound
+     */
+    public WeaverServer(LexiconReloader reloader, InetAddress address, int port) throws IOException {
+        this(reloader, reloader.get(), address, port, null);
+    }
+
+    private WeaverServer(Supplier<Lexicon> lexicons, Lexicon lexicon, InetAddress address, int port,
+                         Path journalFile) throws IOException {
+        assert lexicon != null : "Lexicon cannot be null";
+        this.lexicons = lexicons;
+        if (journalFile != null) {
+            this.recovered = new ConcurrentHashMap<>(Files.exists(journalFile)
+                    ? GameJournal.recover(journalFile, lexicon) : Collections.emptyMap());
+            this.journal = new GameJournal(journalFile, lexicon.getChecksum(),
+                    GameJournal.DEFAULT_COMMIT_INTERVAL_MILLIS);
+        } else {
+            this.recovered = null;
+            this.journal = null;
+        }
+        this.serverSocket = new ServerSocket(port, BACKLOG, address);
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.sessions = virtual != null ? virtual : newPlatformThreadExecutor();
+        this.acceptor = new Thread(this::acceptLoop, "weaver-acceptor");
+        acceptor.start();
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor() looked up reflectively so the
+     * code still compiles and runs on Java 17
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newPlatformThreadExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(null, task, "weaver-session-" + count.incrementAndGet(), PLATFORM_STACK_SIZE);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                client.setTcpNoDelay(true);
+                activeSessions.incrementAndGet();
+                sessions.execute(new GameSession(client, lexicons, newSessionId(), journal, recovered,
+                        activeSessions::decrementAndGet));
+            } catch (SocketException e) {
+                // Server socket closed
+            } catch (IOException e) {
+                System.err.println("Failed to accept connection: " + e.getMessage());
+            }
+        }
+    }
+
+    private long newSessionId() {
+        long id;
+        do {
+            id = sessionIds.nextLong() & Long.MAX_VALUE;
+        } while (id == 0 || (recovered != null && recovered.containsKey(id)));
+        return id;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Number of connected clients
+     * @return Open sessions
+     */
+    public int getActiveSessionCount() {
+        return activeSessions.get();
+    }
+
+    /**
+     * Number of sessions recovered from the journal that no client has resumed yet
+     * @return Resumable sessions
+     */
+    public int getRecoveredSessionCount() {
+        return recovered == null ? 0 : recovered.size();
+    }
+
+    /**
+     * Check if sessions run on virtual threads
+     * @return If virtual threads are used
+     */
+    public boolean isUsingVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Stop accepting connections; sessions in progress end when their clients disconnect
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        sessions.shutdown();
+        try {
+            acceptor.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        boolean watch = args.length > 1 && args[1].equals("--watch");
+        Path journalFile = args.length > 1 && !watch ? Path.of(args[1]) : null;
+        Lexicon lexicon = Lexicon.load("dictionary.txt");
+        WeaverServer server;
+        if (watch) {
+            LexiconReloader reloader = new LexiconReloader(lexicon);
+            reloader.addListener(reloaded -> System.out.println("Reloaded " + reloaded));
+            reloader.watch();
+            server = new WeaverServer(reloader, null, port);
+            System.out.println("Watching " + lexicon.getPath() + " for changes");
+        } else {
+            server = new WeaverServer(lexicon, null, port, journalFile);
+        }
+        System.out.println("Weaver server listening on port " + server.getPort()
+                + (server.isUsingVirtualThreads() ? " (virtual threads)" : " (platform threads)"));
+        if (journalFile != null) {
+            System.out.println("Recovered " + server.getRecoveredSessionCount() + " sessions from " + journalFile);
+        }
+        server.acceptor.join();
+    }
+}
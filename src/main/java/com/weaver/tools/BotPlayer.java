@@ -0,0 +1,285 @@
+package com.weaver.tools;
+
+import com.weaver.metrics.LatencyHistogram;
+import com.weaver.model.Lexicon;
+import com.weaver.model.LexiconShard;
+import com.weaver.model.WeaverGame;
+import com.weaver.model.WordGraph;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+/**
+ * A bot that plays full games for the load generator. Games come from a
+ * shared corpus of puzzles with precomputed optimal ladders. Valid moves
+ * mostly advance along the ladder, sometimes detour to a random neighbour
+ * and then step back; a configurable share of moves is invalid. Only the
+ * move itself is timed and counted as hot-path allocation, not the bot's
+ * own choices
+ */
+public class BotPlayer implements Runnable {
+    // Share of valid moves that advance along the ladder rather than detour
+    private static final double FOLLOW_LADDER_RATIO = 0.8;
+
+    /**
+     * Where the moves are played: an in-process game or a server session
+     */
+    public interface Backend extends AutoCloseable {
+        /**
+         * Start a game
+         * @param start Start word
+         * @param target Target word
+         */
+        void start(String start, String target);
+
+        /**
+         * Play one word
+         * @param word Word
+         * @return If the move was accepted
+         */
+        boolean tryWord(String word);
+
+        @Override
+        default void close() {
+        }
+    }
+
+    /**
+     * Plays through WeaverGame.initializeGame and tryWord directly
+     */
+    public static class InProcessBackend implements Backend {
+        private final WeaverGame game;
+
+        public InProcessBackend(Lexicon lexicon) {
+            this.game = new WeaverGame(lexicon);
+        }
+
+        @Override
+        public void start(String start, String target) {
+            game.initializeGame(start, target);
+        }
+
+        @Override
+        public boolean tryWord(String word) {
+            return game.tryWord(word);
+        }
+    }
+
+    /**
+     * Plays against a WeaverServer over one connection
+     */
+    public static class ServerBackend implements Backend {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final OutputStream out;
+
+        public ServerBackend(InetAddress host, int port) throws IOException {
+            this.socket = new Socket(host, port);
+            socket.setTcpNoDelay(true);
+            this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            this.out = socket.getOutputStream();
+            in.readLine(); // Greeting
+        }
+
+        private String send(String request) {
+            try {
+                out.write((request + "\n").getBytes(StandardCharsets.US_ASCII));
+                String response = in.readLine();
+                if (response == null) {
+                    throw new IOException("Server closed the connection");
+                }
+                return response;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void start(String start, String target) {
+            String reply = send("START " + start + " " + target);
+            if (!reply.startsWith("OK")) {
+                throw new IllegalStateException("Unexpected reply to START: " + reply);
+            }
+        }
+
+        @Override
+        public boolean tryWord(String word) {
+            String reply = send("GUESS " + word);
+            return reply.startsWith("ACCEPTED") || reply.startsWith("WON");
+        }
+
+        @Override
+        public void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Already gone
+            }
+        }
+    }
+
+    private final Backend backend;
+    private final WordGraph graph;
+    private final int[][] ladders;
+    private final String[] words;
+    private final String[] nonWords;
+    private final double invalidRatio;
+    private final long deadline;
+    private final SplittableRandom random;
+    private final com.sun.management.ThreadMXBean threads;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private long moves;
+    private long rejected;
+    private long gamesWon;
+    private long hotPathBytes;
+    private long totalBytes;
+
+    // Current game: its ladder, how far along it the bot is, and any detour word
+    private int[] ladder;
+    private int position;
+    private int detour = -1;
+
+    /**
+     * Constructors
+     * @param backend Game to play against
+     * @param shard Words of the puzzle length, used to choose moves
+     * @param ladders Puzzles as optimal ladders of word IDs, shared by all bots
+     * @param words Every dictionary word by ID, shared by all bots
+     * @param nonWords Strings that are never valid moves, shared by all bots
+     * @param invalidRatio Share of moves that are invalid
+     * @param deadline System.nanoTime() at which to stop
+     * @param seed Random seed
+     */
+    public BotPlayer(Backend backend, LexiconShard shard, int[][] ladders, String[] words, String[] nonWords,
+                     double invalidRatio, long deadline, long seed) {
+        assert invalidRatio >= 0 && invalidRatio <= 1 : "Invalid ratio must be between 0 and 1";
+        this.backend = backend;
+        this.graph = shard.getWordGraph();
+        this.ladders = ladders;
+        this.words = words;
+        this.nonWords = nonWords;
+        this.invalidRatio = invalidRatio;
+        this.deadline = deadline;
+        this.random = new SplittableRandom(seed);
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    @Override
+    public void run() {
+        long allocatedAtStart = threads.getCurrentThreadAllocatedBytes();
+        try (Backend game = backend) {
+            startGame();
+            while (System.nanoTime() < deadline) {
+                boolean invalid = random.nextDouble() < invalidRatio;
+                String word = invalid ? invalidMove() : validMove();
+
+                long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+                long begin = System.nanoTime();
+                boolean accepted = game.tryWord(word);
+                latency.record(System.nanoTime() - begin);
+                hotPathBytes += threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+                moves++;
+
+                if (!accepted) {
+                    rejected++;
+                } else if (!invalid) {
+                    if (advanceOrDetour(word)) {
+                        gamesWon++;
+                        startGame();
+                    }
+                } else {
+                    // A random word that happened to be a neighbour left the ladder; start over
+                    startGame();
+                }
+            }
+        }
+        totalBytes = threads.getCurrentThreadAllocatedBytes() - allocatedAtStart;
+    }
+
+    private void startGame() {
+        ladder = ladders[random.nextInt(ladders.length)];
+        position = 0;
+        detour = -1;
+        backend.start(words[ladder[0]], words[ladder[ladder.length - 1]]);
+    }
+
+    /**
+     * Next ladder word, a random neighbour of the current word, or the way back from a detour
+     */
+    private String validMove() {
+        if (detour >= 0) {
+            return words[ladder[position]];
+        }
+        if (random.nextDouble() < FOLLOW_LADDER_RATIO) {
+            return words[ladder[position + 1]];
+        }
+        int current = ladder[position];
+        return words[graph.edgeTarget(graph.edgeStart(current) + random.nextInt(graph.degree(current)))];
+    }
+
+    /**
+     * Track an accepted valid move
+     * @return If the target was reached
+     */
+    private boolean advanceOrDetour(String word) {
+        if (detour >= 0) {
+            detour = -1;
+        } else if (word.equals(words[ladder[position + 1]])) {
+            position++;
+        } else {
+            detour = graph.indexOf(word);
+        }
+        return position == ladder.length - 1;
+    }
+
+    /**
+     * A random dictionary word (almost always more than one letter away) or a non-word
+     */
+    private String invalidMove() {
+        if (random.nextBoolean()) {
+            return words[random.nextInt(words.length)];
+        }
+        return nonWords[random.nextInt(nonWords.length)];
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public long getMoves() {
+        return moves;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getGamesWon() {
+        return gamesWon;
+    }
+
+    /**
+     * Bytes allocated by this bot's thread inside tryWord
+     * @return Hot-path allocation
+     */
+    public long getHotPathBytes() {
+        return hotPathBytes;
+    }
+
+    /**
+     * Bytes allocated by this bot's thread in total, including choosing moves
+     * @return Total allocation
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+}
@@ -0,0 +1,278 @@
+package com.weaver.tools;
+
+import com.weaver.metrics.LatencyHistogram;
+import com.weaver.model.Lexicon;
+import com.weaver.model.LexiconShard;
+import com.weaver.model.PackedDictionary;
+import com.weaver.model.PuzzleGenerator;
+import com.weaver.model.WeaverSolver;
+import com.weaver.model.WordCodec;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load generator measuring how many moves per second a node sustains. Bot
+ * players play full games from a seeded puzzle corpus on many threads, either in process against
+ * WeaverGame or against a running WeaverServer, and the tool reports
+ * throughput, latency percentiles and allocation rate
+ * <pre>
+ * java com.weaver.tools.LoadGenerator [--mode in-process|server] [--host localhost] [--port 7070]
+ *     [--threads 4] [--duration 10] [--invalid-ratio 0.2] [--seed 42] [--dictionary dictionary.txt]
+ *     [--length 4]
+ * </pre>
+ */
+public class LoadGenerator {
+    private static final int NON_WORDS = 1024;
+    private static final int PUZZLES = 1024;
+    private static final int MIN_STEPS = 3;
+    private static final int MAX_STEPS = 10;
+
+    private boolean serverMode;
+    private String host = "localhost";
+    private int port = 7070;
+    private int threads = 4;
+    private int durationSeconds = 10;
+    private double invalidRatio = 0.2;
+    private long seed = 42;
+    private String dictionaryPath = "dictionary.txt";
+    private int wordLength = Lexicon.DEFAULT_WORD_LENGTH;
+
+    /**
+     * Totals over all bots of one run
+     */
+    public static class Report {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private long moves;
+        private long rejected;
+        private long gamesWon;
+        private long hotPathBytes;
+        private long totalBytes;
+        private long elapsedNanos;
+
+        private void add(BotPlayer bot) {
+            latency.merge(bot.getLatency());
+            moves += bot.getMoves();
+            rejected += bot.getRejected();
+            gamesWon += bot.getGamesWon();
+            hotPathBytes += bot.getHotPathBytes();
+            totalBytes += bot.getTotalBytes();
+        }
+
+        public double getMovesPerSecond() {
+            return moves * 1e9 / elapsedNanos;
+        }
+
+        public long getMoves() {
+            return moves;
+        }
+
+        public long getGamesWon() {
+            return gamesWon;
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = elapsedNanos / 1e9;
+            return String.format("Moves: %d (%.0f moves/s), rejected: %.1f%%, games won: %d%n"
+                            + "Latency (us): p50 %.2f, p99 %.2f, p99.9 %.2f, max %.2f%n"
+                            + "Allocation: %.1f MB/s total, %.1f B/move in tryWord",
+                    moves, getMovesPerSecond(), moves == 0 ? 0 : rejected * 100.0 / moves, gamesWon,
+                    latency.getValueAtPercentile(50) / 1e3, latency.getValueAtPercentile(99) / 1e3,
+                    latency.getValueAtPercentile(99.9) / 1e3, latency.getMax() / 1e3,
+                    totalBytes / seconds / (1 << 20), moves == 0 ? 0 : (double) hotPathBytes / moves);
+        }
+    }
+
+    /**
+     * Run the configured load and wait for all bots to finish
+     * @return Report
+     * @throws IOException If a bot cannot connect to the server
+     * @throws InterruptedException If interrupted while waiting for the bots
+     */
+    public Report run() throws IOException, InterruptedException {
+        Lexicon lexicon = Lexicon.load(dictionaryPath);
+        LexiconShard shard = lexicon.shard(wordLength);
+        String[] words = wordsById(shard.getDictionary());
+        String[] nonWords = nonWords(shard, new SplittableRandom(seed));
+        int[][] ladders = ladders(shard, new SplittableRandom(seed));
+        InetAddress address = serverMode ? InetAddress.getByName(host) : null;
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        List<BotPlayer> bots = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            BotPlayer.Backend backend = serverMode
+                    ? new BotPlayer.ServerBackend(address, port)
+                    : new BotPlayer.InProcessBackend(lexicon);
+            bots.add(new BotPlayer(backend, shard, ladders, words, nonWords, invalidRatio, deadline, seed + i));
+        }
+
+        long begin = System.nanoTime();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < bots.size(); i++) {
+            Thread worker = new Thread(bots.get(i), "bot-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        Report report = new Report();
+        report.elapsedNanos = System.nanoTime() - begin;
+        for (BotPlayer bot : bots) {
+            report.add(bot);
+        }
+        return report;
+    }
+
+    /**
+     * Random puzzles with their optimal ladders as word IDs, solved up front
+     * so games start with a plain initializeGame
+     */
+    private static int[][] ladders(LexiconShard shard, SplittableRandom random) {
+        PuzzleGenerator generator = shard.getPuzzleGenerator();
+        WeaverSolver solver = new WeaverSolver(shard.getWordGraph());
+        int[][] ladders = new int[PUZZLES][];
+        for (int i = 0; i < PUZZLES; i++) {
+            PuzzleGenerator.Puzzle puzzle = generator.generateOrWiden(MIN_STEPS, MAX_STEPS, random);
+            List<String> path = solver.shortestPath(puzzle.getStartWord(), puzzle.getTargetWord()).getPath();
+            ladders[i] = path.stream().mapToInt(shard.getWordGraph()::indexOf).toArray();
+        }
+        return ladders;
+    }
+
+    /**
+     * Decode every word once so bots do not allocate while choosing moves
+     */
+    private static String[] wordsById(PackedDictionary dictionary) {
+        String[] words = new String[dictionary.size()];
+        for (int id = 0; id < words.length; id++) {
+            words[id] = dictionary.wordAt(id);
+        }
+        return words;
+    }
+
+    /**
+     * Dictionary words with one letter replaced so they are no longer words,
+     * mixed with a few words of the wrong length
+     */
+    private static String[] nonWords(LexiconShard shard, SplittableRandom random) {
+        PackedDictionary dictionary = shard.getDictionary();
+        String[] nonWords = new String[NON_WORDS];
+        int count = 0;
+        while (count < NON_WORDS) {
+            long packed = dictionary.packedAt(random.nextInt(dictionary.size()));
+            int length = WordCodec.length(packed);
+            if (count % 8 == 0) {
+                nonWords[count++] = WordCodec.unpack(packed) + "s";
+                continue;
+            }
+            long changed = WordCodec.withLetter(packed, length, random.nextInt(length), 1 + random.nextInt(26));
+            if (!dictionary.contains(changed)) {
+                nonWords[count++] = WordCodec.unpack(changed);
+            }
+        }
+        return nonWords;
+    }
+
+    public LoadGenerator setServerMode(boolean serverMode) {
+        this.serverMode = serverMode;
+        return this;
+    }
+
+    public LoadGenerator setHost(String host) {
+        this.host = host;
+        return this;
+    }
+
+    public LoadGenerator setPort(int port) {
+        this.port = port;
+        return this;
+    }
+
+    public LoadGenerator setThreads(int threads) {
+        assert threads > 0 : "Thread count must be greater than 0";
+        this.threads = threads;
+        return this;
+    }
+
+    public LoadGenerator setDurationSeconds(int durationSeconds) {
+        assert durationSeconds > 0 : "Duration must be greater than 0";
+        this.durationSeconds = durationSeconds;
+        return this;
+    }
+
+    public LoadGenerator setInvalidRatio(double invalidRatio) {
+        assert invalidRatio >= 0 && invalidRatio <= 1 : "Invalid ratio must be between 0 and 1";
+        this.invalidRatio = invalidRatio;
+        return this;
+    }
+
+    public LoadGenerator setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public LoadGenerator setDictionaryPath(String dictionaryPath) {
+        this.dictionaryPath = dictionaryPath;
+        return this;
+    }
+
+    public LoadGenerator setWordLength(int wordLength) {
+        assert wordLength > 0 : "Word length must be greater than 0";
+        this.wordLength = wordLength;
+        return this;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LoadGenerator generator = new LoadGenerator();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--mode":
+                    generator.setServerMode(value.equals("server"));
+                    break;
+                case "--host":
+                    generator.setHost(value);
+                    break;
+                case "--port":
+                    generator.setPort(Integer.parseInt(value));
+                    break;
+                case "--threads":
+                    generator.setThreads(Integer.parseInt(value));
+                    break;
+                case "--duration":
+                    generator.setDurationSeconds(Integer.parseInt(value));
+                    break;
+                case "--invalid-ratio":
+                    generator.setInvalidRatio(Double.parseDouble(value));
+                    break;
+                case "--seed":
+                    generator.setSeed(Long.parseLong(value));
+                    break;
+                case "--dictionary":
+                    generator.setDictionaryPath(value);
+                    break;
+                case "--length":
+                    generator.setWordLength(Integer.parseInt(value));
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    return;
+            }
+        }
+        System.out.printf("Mode: %s, threads: %d, duration: %d s, invalid moves: %.0f%%%n",
+                generator.serverMode ? "server " + generator.host + ":" + generator.port : "in-process",
+                generator.threads, generator.durationSeconds, generator.invalidRatio * 100);
+        System.out.println(generator.run());
+    }
+}
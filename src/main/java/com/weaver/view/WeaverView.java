@@ -14,6 +14,8 @@ import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
 import javafx.util.Duration;
 
+import java.util.Arrays;
+
 /**
  * Game's view class, which is responsible for the presentation of the UI
  */
@@ -24,16 +26,106 @@ public class WeaverView implements GameView {
     private Button submitButton;
     private Button resetButton;
     private Button newGameButton;
+    private Button hintButton;
     private Label messageLabel;
     private GridPane keyboard;
+    // Letter keys by letter, 'A' first
+    private final Button[] letterKeys = new Button[26];
     private CheckBox showErrorMessageCheckBox;
     private CheckBox showPathCheckBox;
     private CheckBox useRandomWordsCheckBox;
-    private ListView<String> historyList;
+    private ListView<HistoryRow> historyList;
     private Label timerLabel;
     private Label scoreLabel;
     private Label startWordLabel;
     private Label targetWordLabel;
+    // Letters the input field accepts, the word length of the current game
+    private int wordLength = 4;
+
+    // Render-time metric for history updates, see recordRenderTime
+    private long renderCount;
+    private long renderNanosTotal;
+    private long renderNanosMax;
+
+    private static final String CORRECT_LETTER_STYLE = letterStyle("#90EE90");
+    private static final String OTHER_LETTER_STYLE = letterStyle("#D3D3D3");
+
+    private static String letterStyle(String color) {
+        return "-fx-background-color: " + color + ";" +
+               "-fx-border-color: black;" +
+               "-fx-border-width: 1px;";
+    }
+
+    /**
+     * A played word with its correct-position flags, computed once when the word is added
+     */
+    private static final class HistoryRow {
+        private final String word;
+        private final boolean[] correctPositions;
+
+        private HistoryRow(String word, boolean[] correctPositions) {
+            this.word = word;
+            this.correctPositions = correctPositions;
+        }
+    }
+
+    /**
+     * History cell that creates its letter labels once and only updates their
+     * text and colour when the list recycles it for another row
+     */
+    private static final class LetterRowCell extends ListCell<HistoryRow> {
+        private final HBox wordBox = new HBox(5);
+        private Label[] labels = new Label[0];
+        private boolean[] shownCorrect = new boolean[0];
+
+        private LetterRowCell() {
+            wordBox.setAlignment(Pos.CENTER);
+        }
+
+        @Override
+        protected void updateItem(HistoryRow row, boolean empty) {
+            super.updateItem(row, empty);
+            setText(null);
+            if (empty || row == null) {
+                setGraphic(null);
+                return;
+            }
+            int length = row.word.length();
+            if (labels.length != length) {
+                resize(length);
+            }
+            for (int i = 0; i < length; i++) {
+                Label letter = labels[i];
+                String text = String.valueOf(row.word.charAt(i));
+                if (!text.equals(letter.getText())) {
+                    letter.setText(text);
+                }
+                boolean correct = row.correctPositions[i];
+                if (correct != shownCorrect[i]) {
+                    letter.setStyle(correct ? CORRECT_LETTER_STYLE : OTHER_LETTER_STYLE);
+                    shownCorrect[i] = correct;
+                }
+            }
+            setGraphic(wordBox);
+        }
+
+        private void resize(int length) {
+            Label[] resized = Arrays.copyOf(labels, length);
+            boolean[] resizedCorrect = Arrays.copyOf(shownCorrect, length);
+            for (int i = labels.length; i < length; i++) {
+                Label letter = new Label();
+                letter.setFont(Font.font("System", FontWeight.BOLD, 20));
+                letter.setPrefWidth(40);
+                letter.setPrefHeight(40);
+                letter.setAlignment(Pos.CENTER);
+                letter.setStyle(OTHER_LETTER_STYLE);
+                resized[i] = letter;
+            }
+            labels = resized;
+            shownCorrect = resizedCorrect;
+            wordBox.getChildren().setAll(labels);
+        }
+    }
 
     public WeaverView() {
         initialize();
@@ -82,6 +174,7 @@ public class WeaverView implements GameView {
         historyList.getStyleClass().add("history-list");
         historyList.setMaxHeight(200);
         historyList.setMaxWidth(300);
+        historyList.setCellFactory(list -> new LetterRowCell());
 
         // Message label
         messageLabel = new Label();
@@ -100,7 +193,9 @@ public class WeaverView implements GameView {
         resetButton.getStyleClass().addAll("button", "reset-button");
         newGameButton = new Button("New Game");
         newGameButton.getStyleClass().addAll("button", "new-game-button");
-        buttonBox.getChildren().addAll(submitButton, resetButton, newGameButton);
+        hintButton = new Button("Hint");
+        hintButton.getStyleClass().addAll("button", "hint-button");
+        buttonBox.getChildren().addAll(submitButton, resetButton, newGameButton, hintButton);
 
         // Create the flag control area
         VBox flagsArea = new VBox(5);
@@ -156,6 +251,9 @@ public class WeaverView implements GameView {
             for (int col = 0; col < keyboardLayout[row].length; col++) {
                 String key = keyboardLayout[row][col];
                 Button keyButton = new Button(key);
+                if (key.length() == 1) {
+                    letterKeys[key.charAt(0) - 'A'] = keyButton;
+                }
                 keyButton.setStyle(
                     "-fx-background-color: #404040;" + // Dark gray background
                     "-fx-text-fill: white;" +          // White text
@@ -187,7 +285,7 @@ public class WeaverView implements GameView {
                             }
                             break;
                         default:
-                            if (inputField.getText().length() < 4) {
+                            if (inputField.getText().length() < wordLength) {
                                 inputField.setText(inputField.getText() + key);
                             }
                             break;
@@ -216,27 +314,41 @@ public class WeaverView implements GameView {
     }
 
     /**
-     * Add words to the history
+     * Append one word to the history. Only the new row is added; visible rows
+     * reuse their cells' letter labels
+     * @param word Played word
+     * @param correctPositions Letters that match the target, kept for redraws
      */
     public void addWordToHistory(String word, boolean[] correctPositions) {
-        HBox wordBox = new HBox(5);
-        wordBox.setAlignment(Pos.CENTER);
+        assert word.length() == correctPositions.length : "One flag per letter is required";
+        historyList.getItems().add(new HistoryRow(word, correctPositions));
+        historyList.scrollTo(historyList.getItems().size() - 1);
+    }
 
-        for (int i = 0; i < word.length(); i++) {
-            Label letter = new Label(String.valueOf(word.charAt(i)));
-            letter.setFont(Font.font("System", FontWeight.BOLD, 20));
-            letter.setPrefWidth(40);
-            letter.setPrefHeight(40);
-            letter.setAlignment(Pos.CENTER);
-            letter.setStyle(
-                "-fx-background-color: " + (correctPositions[i] ? "#90EE90" : "#D3D3D3") + ";" +
-                "-fx-border-color: black;" +
-                "-fx-border-width: 1px;"
-            );
-            wordBox.getChildren().add(letter);
-        }
+    /**
+     * Record how long one history update took on the FX thread
+     * @param nanos Elapsed time
+     */
+    public void recordRenderTime(long nanos) {
+        renderCount++;
+        renderNanosTotal += nanos;
+        renderNanosMax = Math.max(renderNanosMax, nanos);
+    }
+
+    public long getRenderCount() {
+        return renderCount;
+    }
 
-        historyList.getItems().add(word);
+    /**
+     * Mean history update time
+     * @return Microseconds, 0 before the first update
+     */
+    public double getAverageRenderMicros() {
+        return renderCount == 0 ? 0 : renderNanosTotal / 1000.0 / renderCount;
+    }
+
+    public double getMaxRenderMicros() {
+        return renderNanosMax / 1000.0;
     }
 
     @Override
@@ -317,6 +429,10 @@ public class WeaverView implements GameView {
         return newGameButton;
     }
 
+    public Button getHintButton() {
+        return hintButton;
+    }
+
     public Label getMessageLabel() {
         return messageLabel;
     }
@@ -325,6 +441,16 @@ public class WeaverView implements GameView {
         return keyboard;
     }
 
+    /**
+     * Enable only the letter keys in a mask and disable the rest
+     * @param mask 26-bit letter mask, bit 0 for 'A'
+     */
+    public void setEnabledLetters(int mask) {
+        for (int i = 0; i < letterKeys.length; i++) {
+            letterKeys[i].setDisable((mask & (1 << i)) == 0);
+        }
+    }
+
     public void clearHistory() {
         historyList.getItems().clear();
     }
@@ -358,5 +484,14 @@ public class WeaverView implements GameView {
         targetWordLabel.setText(targetWord);
     }
 
+    /**
+     * Limit the virtual keyboard input to the word length of the current game
+     * @param wordLength Word length
+     */
+    public void setWordLength(int wordLength) {
+        assert wordLength > 0 : "Word length must be greater than 0";
+        this.wordLength = wordLength;
+    }
+
 
 } 
\ No newline at end of file
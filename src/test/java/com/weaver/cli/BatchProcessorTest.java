@@ -0,0 +1,72 @@
+package com.weaver.cli;
+
+import com.weaver.model.Lexicon;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchProcessorTest {
+    private static String process(BatchProcessor.Mode mode, BatchProcessor.Format format, String input)
+            throws Exception {
+        BatchProcessor processor = new BatchProcessor(Lexicon.load("dictionary.txt"), mode, format, 2);
+        StringWriter out = new StringWriter();
+        processor.process(new BufferedReader(new StringReader(input)), out);
+        return out.toString();
+    }
+
+    @Nested
+    @DisplayName("Solve Mode Test")
+    class SolveTests {
+        @Test
+        @DisplayName("Shortest ladders as TSV")
+        void testSolveTsv() throws Exception {
+            String[] rows = process(BatchProcessor.Mode.SOLVE, BatchProcessor.Format.TSV,
+                    "FISH BIRD\naqua fish\nzzzz fish\nable\n").split("\n");
+            assertEquals("line\tstart\ttarget\tstatus\tsteps\tpath", rows[0]);
+            assertTrue(rows[1].startsWith("1\tfish\tbird\tOK\t5\tfish,"));
+            assertEquals("2\taqua\tfish\tUNREACHABLE\t-1\t", rows[2]);
+            assertEquals("3\tzzzz\tfish\tNOT_IN_DICTIONARY\t-1\t", rows[3]);
+            assertEquals("4\t\t\tMALFORMED\t-1\t", rows[4]);
+        }
+
+        @Test
+        @DisplayName("Results keep input order across chunks")
+        void testOrder() throws Exception {
+            StringBuilder input = new StringBuilder();
+            for (int i = 0; i < 10_000; i++) {
+                input.append(i % 2 == 0 ? "able ably\n" : "cold warm\n");
+            }
+            String[] rows = process(BatchProcessor.Mode.SOLVE, BatchProcessor.Format.JSON, input.toString())
+                    .split("\n");
+            assertEquals(10_000, rows.length);
+            for (int i = 0; i < rows.length; i++) {
+                assertTrue(rows[i].startsWith("{\"line\":" + (i + 1) + ","));
+                assertTrue(rows[i].contains(i % 2 == 0 ? "\"steps\":1" : "\"steps\":4"));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Validate Mode Test")
+    class ValidateTests {
+        @Test
+        @DisplayName("Submitted ladders are replayed with the game rules")
+        void testValidate() throws Exception {
+            String[] rows = process(BatchProcessor.Mode.VALIDATE, BatchProcessor.Format.JSON,
+                    "able -> ably\nfish,fist,aces\nfish fist fistt\nzzzz able\n").split("\n");
+            assertEquals("{\"line\":1,\"status\":\"OK\",\"valid\":true,\"steps\":1,\"optimal\":1,"
+                    + "\"firstInvalidStep\":-1}", rows[0]);
+            assertTrue(rows[1].contains("\"status\":\"INVALID_DIFFERENCE\""));
+            assertTrue(rows[1].contains("\"firstInvalidStep\":2"));
+            assertTrue(rows[2].contains("\"status\":\"INVALID_LENGTH\""));
+            assertTrue(rows[3].contains("\"status\":\"NOT_IN_DICTIONARY\",\"valid\":false,\"steps\":1,"
+                    + "\"optimal\":-1,\"firstInvalidStep\":0"));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.weaver.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+    @Test
+    @DisplayName("Percentiles are within the bucket precision")
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1000);
+        }
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(50_000_000, histogram.getValueAtPercentile(50), 50_000_000 * 0.016);
+        assertEquals(99_000_000, histogram.getValueAtPercentile(99), 99_000_000 * 0.016);
+        assertEquals(100_000_000, histogram.getValueAtPercentile(100));
+        assertEquals(1000, histogram.getValueAtPercentile(0), 1000 * 0.016);
+        assertEquals(50_000_500, histogram.getMean(), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Small values are exact and merging adds counts")
+    void testMerge() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        a.record(3);
+        b.record(7);
+        b.record(Long.MAX_VALUE);
+        a.merge(b);
+        assertEquals(3, a.getCount());
+        assertEquals(3, a.getValueAtPercentile(33));
+        assertEquals(7, a.getValueAtPercentile(66));
+        assertEquals(Long.MAX_VALUE, a.getMax());
+        a.reset();
+        assertEquals(0, a.getValueAtPercentile(99));
+    }
+}
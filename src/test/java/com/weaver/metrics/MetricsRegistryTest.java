@@ -0,0 +1,56 @@
+package com.weaver.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsRegistryTest {
+    @Test
+    @DisplayName("Counters and histograms lose no updates from concurrent threads")
+    void testConcurrentUpdates() {
+        MetricsRegistry registry = new MetricsRegistry();
+        IntStream.rangeClosed(1, 100_000).parallel().forEach(value -> {
+            registry.counter("test.count").increment();
+            registry.histogram("test.latency").record(value * 1000L);
+        });
+
+        MetricsSnapshot snapshot = registry.snapshot();
+        assertEquals(100_000, snapshot.getValue("test.count"));
+        LatencyHistogram histogram = snapshot.getHistogram("test.latency");
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(50_000_000, histogram.getValueAtPercentile(50), 50_000_000 * 0.016);
+        assertEquals(100_000_000, histogram.getMax(), 100_000_000 * 0.016);
+        assertEquals(50_000_500, histogram.getMean(), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Snapshots flatten histograms and dump one line per metric")
+    void testSnapshotText() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("b.count").add(3);
+        registry.gauge("a.gauge", () -> 7);
+        registry.histogram("c.latency").record(42);
+
+        Map<String, Long> values = registry.snapshot().toMap();
+        assertEquals(7, values.get("a.gauge"));
+        assertEquals(1, values.get("c.latency.count"));
+        assertEquals(42, values.get("c.latency.p99"));
+        assertEquals("a.gauge 7\nb.count 3\nc.latency.count 1\nc.latency.max 42\n"
+                + "c.latency.p50 42\nc.latency.p99 42\nc.latency.p999 42\n", registry.getText());
+    }
+
+    @Test
+    @DisplayName("The default registry can be read over JMX")
+    void testMBean() throws Exception {
+        MetricsRegistry.getDefault().counter("test.jmx").increment();
+        String text = (String) ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(new ObjectName(MetricsRegistry.OBJECT_NAME), "Text");
+        assertTrue(text.contains("test.jmx "), text);
+    }
+}
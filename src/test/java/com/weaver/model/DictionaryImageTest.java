@@ -0,0 +1,132 @@
+package com.weaver.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DictionaryImageTest {
+    private static final byte[] TEXT = "able\nably\r\n Axle \nbird\nab1e\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Test parsing dictionary text into packed words")
+    void testParse() {
+        PackedDictionary dictionary = PackedDictionary.parse(TEXT);
+        assertEquals(4, dictionary.size());
+        assertTrue(dictionary.contains("axle"));
+        assertFalse(dictionary.contains("ab1e"));
+    }
+
+    @Test
+    @DisplayName("Test that a written image loads back the same graph")
+    void testRoundTrip() throws Exception {
+        WordGraph graph = WordGraph.build(PackedDictionary.parse(TEXT));
+        Path image = tempDir.resolve("dictionary.img");
+        long checksum = DictionaryImage.checksum(TEXT);
+        DictionaryImage.write(image, checksum, graph);
+
+        WordGraph loaded = DictionaryImage.load(image, checksum);
+        assertNotNull(loaded);
+        assertEquals(graph.size(), loaded.size());
+        assertEquals(graph.edgeCount(), loaded.edgeCount());
+        for (int id = 0; id < graph.size(); id++) {
+            assertEquals(graph.getWord(id), loaded.getWord(id));
+            assertEquals(graph.degree(id), loaded.degree(id));
+        }
+        assertTrue(loaded.getDictionary().contains("ably"));
+    }
+
+    @Test
+    @DisplayName("Test that stale, corrupt or missing images are rejected")
+    void testRejectedImages() throws Exception {
+        WordGraph graph = WordGraph.build(PackedDictionary.parse(TEXT));
+        Path image = tempDir.resolve("dictionary.img");
+        long checksum = DictionaryImage.checksum(TEXT);
+        DictionaryImage.write(image, checksum, graph);
+
+        assertNull(DictionaryImage.load(image, checksum + 1));
+        assertNull(DictionaryImage.load(tempDir.resolve("missing.img"), checksum));
+
+        // A flipped bit in the payload keeps the size and source checksum but not the payload checksum
+        byte[] bytes = Files.readAllBytes(image);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(image, bytes);
+        assertNull(DictionaryImage.load(image, checksum));
+
+        Files.write(image, new byte[] {1, 2, 3});
+        assertNull(DictionaryImage.load(image, checksum));
+    }
+
+    @Test
+    @DisplayName("Test that a words image loads back only for the same file size and time")
+    void testWordsImage() throws Exception {
+        int[] skipped = new int[PackedDictionary.SKIPPED_REASONS];
+        long[] words = PackedDictionary.parseWords(TEXT, skipped);
+        Path image = tempDir.resolve("dictionary.words.img");
+        long checksum = DictionaryImage.checksum(TEXT);
+        DictionaryImage.writeWords(image, TEXT.length, 1000, new DictionaryImage.Words(checksum, words, 1));
+
+        DictionaryImage.Words loaded = DictionaryImage.loadWords(image, TEXT.length, 1000);
+        assertNotNull(loaded);
+        assertEquals(checksum, loaded.getChecksum());
+        assertArrayEquals(words, loaded.getWords());
+        assertEquals(1, loaded.getSkippedLines());
+
+        assertNull(DictionaryImage.loadWords(image, TEXT.length + 1, 1000));
+        assertNull(DictionaryImage.loadWords(image, TEXT.length, 1001));
+        assertNull(DictionaryImage.loadWords(tempDir.resolve("missing.img"), TEXT.length, 1000));
+
+        byte[] bytes = Files.readAllBytes(image);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(image, bytes);
+        assertNull(DictionaryImage.loadWords(image, TEXT.length, 1000));
+    }
+
+    @Test
+    @DisplayName("Test that an unchanged dictionary file is read from its words image")
+    void testLexiconFromWordsImage() throws Exception {
+        // Written next to the test resources so the class loader can find it
+        String path = "image-dictionary.txt";
+        Path resources = Paths.get(getClass().getClassLoader().getResource("mixed-dictionary.txt").toURI()).getParent();
+        Path file = resources.resolve(path);
+        Path image = DictionaryImage.wordsImagePath(path);
+        FileTime settled = FileTime.from(System.currentTimeMillis() - 60_000, TimeUnit.MILLISECONDS);
+        try {
+            Files.deleteIfExists(image);
+            Files.writeString(file, "cat\ncot\ncog\ndog\ncats!\n");
+            Files.setLastModifiedTime(file, settled);
+            Lexicon parsed = Lexicon.read(path);
+            assertTrue(Files.isRegularFile(image));
+
+            // Same size and time: the image is trusted without reading the text
+            Files.writeString(file, "cat\ncot\ncut\ndog\ncats!\n");
+            Files.setLastModifiedTime(file, settled);
+            Lexicon compiled = Lexicon.read(path);
+            assertEquals(parsed.getChecksum(), compiled.getChecksum());
+            assertEquals(1, compiled.getSkippedLines());
+            assertEquals(4, compiled.size());
+            assertTrue(compiled.contains("cog"));
+
+            // A new modification time makes it stale
+            Files.setLastModifiedTime(file, FileTime.from(settled.toMillis() + 1000, TimeUnit.MILLISECONDS));
+            Lexicon reparsed = Lexicon.read(path);
+            assertNotEquals(parsed.getChecksum(), reparsed.getChecksum());
+            assertTrue(reparsed.contains("cut"));
+            assertFalse(reparsed.contains("cog"));
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(image);
+        }
+    }
+}
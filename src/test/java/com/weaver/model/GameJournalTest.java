@@ -0,0 +1,166 @@
+package com.weaver.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameJournalTest {
+    @TempDir
+    Path dir;
+
+    private Lexicon lexicon;
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        lexicon = Lexicon.load("dictionary.txt");
+        file = dir.resolve("games.journal");
+    }
+
+    private void playTwoSessions() throws IOException {
+        try (GameJournal journal = new GameJournal(file, lexicon.getChecksum(), 5)) {
+            WeaverGame first = new WeaverGame(lexicon);
+            first.setJournal(journal, 1);
+            first.initializeGame("fish", "bird");
+            first.tryWord("fist");
+            first.tryWord("aces"); // Rejected moves are not journaled
+
+            WeaverGame second = new WeaverGame(lexicon);
+            second.setJournal(journal, 2);
+            second.initializeGame("able", "ably");
+            second.tryWord("ably");
+        }
+    }
+
+    @Test
+    @DisplayName("Sessions of different word lengths are rebuilt in their own shards")
+    void testRecoverMixedLengths() throws IOException {
+        Lexicon mixed = Lexicon.read("mixed-dictionary.txt");
+        try (GameJournal journal = new GameJournal(file, mixed.getChecksum(), 5)) {
+            WeaverGame three = new WeaverGame(mixed);
+            three.setJournal(journal, 1);
+            three.initializeGame("cat", "dog");
+            three.tryWord("cot");
+
+            WeaverGame five = new WeaverGame(mixed);
+            five.setJournal(journal, 2);
+            five.initializeGame("stone", "spare");
+            five.tryWord("store");
+        }
+        Map<Long, WeaverGame> games = GameJournal.recover(file, mixed);
+        assertEquals("cot", games.get(1L).getCurrentWord());
+        assertEquals("store", games.get(2L).getCurrentWord());
+        assertEquals(5, games.get(2L).getWordLength());
+        assertTrue(games.get(2L).tryWord("shore"));
+    }
+
+    @Test
+    @DisplayName("Sessions are rebuilt from the journal")
+    void testRecover() throws IOException {
+        playTwoSessions();
+        Map<Long, WeaverGame> games = GameJournal.recover(file, lexicon);
+        assertEquals(2, games.size());
+
+        WeaverGame first = games.get(1L);
+        assertEquals("fish", first.getStartWord());
+        assertEquals("bird", first.getTargetWord());
+        assertEquals("fist", first.getCurrentWord());
+        assertEquals(1, first.getStepCount());
+        assertTrue(first.tryWord("gist"));
+
+        assertTrue(games.get(2L).hasWon());
+    }
+
+    @Test
+    @DisplayName("A torn tail is ignored and truncated on reopen")
+    void testTornTail() throws IOException {
+        playTwoSessions();
+        long complete = Files.size(file);
+        Files.write(file, new byte[]{13, 0, 0, 0, 1, 2}, StandardOpenOption.APPEND);
+        assertEquals(4, GameJournal.replay(file, lexicon.getChecksum(), new CountingListener()));
+
+        try (GameJournal journal = new GameJournal(file, lexicon.getChecksum(), 5)) {
+            assertEquals(complete, Files.size(file));
+            journal.logWordAccepted(2, lexicon.shard(4).getWordGraph().indexOf("able"));
+        }
+        assertEquals("able", GameJournal.recover(file, lexicon).get(2L).getCurrentWord());
+    }
+
+    @Test
+    @DisplayName("Journals larger than one read buffer are scanned in chunks")
+    void testLongJournal() throws IOException {
+        int able = lexicon.shard(4).getWordGraph().indexOf("able");
+        int ably = lexicon.shard(4).getWordGraph().indexOf("ably");
+        try (GameJournal journal = new GameJournal(file, lexicon.getChecksum(), 5)) {
+            journal.logGameInitialized(1, 4, able, ably);
+            for (int i = 0; i < 10_000; i++) {
+                journal.logWordAccepted(1, i % 2 == 0 ? ably : able);
+            }
+        }
+        assertTrue(Files.size(file) > 1 << 16);
+        assertEquals(10_001, GameJournal.replay(file, lexicon.getChecksum(), new CountingListener()));
+        assertEquals(10_000, GameJournal.recover(file, lexicon).get(1L).getStepCount());
+    }
+
+    @Test
+    @DisplayName("A journal past its size limit keeps only the last game of each session")
+    void testCompaction() throws IOException {
+        int compactions;
+        try (GameJournal journal = new GameJournal(file, lexicon.getChecksum(), 5, 4096)) {
+            WeaverGame waiting = new WeaverGame(lexicon);
+            waiting.setJournal(journal, 1);
+            waiting.initializeGame("fish", "bird");
+            waiting.tryWord("fist");
+
+            WeaverGame busy = new WeaverGame(lexicon);
+            busy.setJournal(journal, 2);
+            for (int i = 0; i < 500; i++) {
+                busy.initializeGame("able", "ably");
+                busy.tryWord("ably");
+            }
+            busy.initializeGame("cold", "warm");
+            busy.tryWord("cord");
+            journal.flush();
+            compactions = journal.getCompactionCount();
+        }
+        assertTrue(compactions > 0);
+        assertTrue(Files.size(file) < 4096);
+        Map<Long, WeaverGame> games = GameJournal.recover(file, lexicon);
+        assertEquals("fist", games.get(1L).getCurrentWord());
+        assertEquals("cord", games.get(2L).getCurrentWord());
+        assertEquals(1, games.get(2L).getStepCount());
+
+        // Reopening an oversized journal compacts it too
+        try (GameJournal journal = new GameJournal(file, lexicon.getChecksum(), 5, 64)) {
+            assertEquals(1, journal.getCompactionCount());
+        }
+        assertEquals(4, GameJournal.replay(file, lexicon.getChecksum(), new CountingListener()));
+    }
+
+    @Test
+    @DisplayName("A journal of another dictionary is rejected")
+    void testChecksumMismatch() throws IOException {
+        playTwoSessions();
+        assertThrows(IOException.class, () -> GameJournal.replay(file, lexicon.getChecksum() + 1, new CountingListener()));
+        assertThrows(IOException.class, () -> new GameJournal(file, lexicon.getChecksum() + 1, 5));
+    }
+
+    private static class CountingListener implements GameJournal.Listener {
+        @Override
+        public void onGameInitialized(long session, int length, int start, int target) {
+        }
+
+        @Override
+        public void onWordAccepted(long session, int word) {
+        }
+    }
+}
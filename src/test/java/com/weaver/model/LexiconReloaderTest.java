@@ -0,0 +1,73 @@
+package com.weaver.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LexiconReloaderTest {
+    private static final String DICTIONARY = "reload-dictionary.txt";
+
+    private Path file;
+    private LexiconReloader reloader;
+
+    @BeforeEach
+    void setUp() throws IOException, URISyntaxException {
+        // Written next to the test resources so the class loader can find it
+        Path resources = Paths.get(getClass().getClassLoader().getResource("mixed-dictionary.txt").toURI()).getParent();
+        file = resources.resolve(DICTIONARY);
+        Files.writeString(file, "cat\ncot\ncog\ndog\n");
+        reloader = new LexiconReloader(Lexicon.read(DICTIONARY));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        reloader.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    @DisplayName("Games in progress keep their snapshot, new games use the reloaded version")
+    void testReloadSnapshots() throws IOException {
+        WeaverGame game = new WeaverGame(reloader);
+        game.initializeGame("cat", "dog");
+        Lexicon original = game.getLexicon();
+        assertSame(original, reloader.reload());
+
+        Files.writeString(file, "cat\ncot\ncut\ndog\n");
+        Lexicon reloaded = reloader.reload();
+        assertNotSame(original, reloaded);
+        assertSame(reloaded, reloader.get());
+        assertTrue(reloaded.isShardLoaded(3));
+        assertEquals(1, reloader.getReloadCount());
+
+        assertTrue(game.tryWord("cot"));
+        assertTrue(game.tryWord("cog"));
+        assertSame(original, game.getLexicon());
+
+        game.initializeGame("cat", "cut");
+        assertSame(reloaded, game.getLexicon());
+        assertTrue(game.tryWord("cot"));
+        assertFalse(game.tryWord("cog"));
+    }
+
+    @Test
+    @DisplayName("Editing the watched file swaps in a new version")
+    void testWatch() throws IOException, InterruptedException {
+        reloader.watch();
+        Files.writeString(file, "cat\ncot\ncut\nhut\n");
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (reloader.getReloadCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(reloader.get().contains("hut"));
+    }
+}
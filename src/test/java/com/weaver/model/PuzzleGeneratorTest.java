@@ -0,0 +1,79 @@
+package com.weaver.model;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PuzzleGeneratorTest {
+    private static Lexicon lexicon;
+    private static PuzzleGenerator generator;
+    private static WeaverSolver solver;
+
+    @BeforeAll
+    static void setUp() {
+        lexicon = Lexicon.load("dictionary.txt");
+        generator = lexicon.shard(4).getPuzzleGenerator();
+        generator.precompute();
+        solver = new WeaverSolver(lexicon.shard(4).getWordGraph());
+    }
+
+    @Test
+    @DisplayName("Test that generated puzzles fall in the requested band")
+    void testBands() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (Difficulty difficulty : Difficulty.values()) {
+            for (int i = 0; i < 50; i++) {
+                PuzzleGenerator.Puzzle puzzle =
+                        generator.generate(difficulty.getMinSteps(), difficulty.getMaxSteps(), random);
+                int length = solver.shortestPath(puzzle.getStartWord(), puzzle.getTargetWord()).getLength();
+                assertEquals(puzzle.getSteps(), length);
+                assertTrue(length >= difficulty.getMinSteps() && length <= difficulty.getMaxSteps());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test the distance distribution and an impossible band")
+    void testDistribution() {
+        long[] distribution = generator.getDistanceDistribution();
+        assertEquals(17, generator.getMaxDistance());
+        assertEquals(lexicon.shard(4).getWordGraph().edgeCount(), distribution[1]);
+        assertNull(generator.generate(generator.getMaxDistance() + 1, Integer.MAX_VALUE, new SplittableRandom(1)));
+    }
+
+    @Test
+    @DisplayName("Test that draws before the precomputation sample start words")
+    void testSampledBands() {
+        WordGraph graph = lexicon.shard(4).getWordGraph();
+        PuzzleGenerator sampling = new PuzzleGenerator(graph);
+        SplittableRandom random = new SplittableRandom(11);
+        for (Difficulty difficulty : Difficulty.values()) {
+            for (int i = 0; i < 20; i++) {
+                PuzzleGenerator.Puzzle puzzle =
+                        sampling.generate(difficulty.getMinSteps(), difficulty.getMaxSteps(), random);
+                int length = solver.shortestPath(puzzle.getStartWord(), puzzle.getTargetWord()).getLength();
+                assertEquals(puzzle.getSteps(), length);
+                assertTrue(length >= difficulty.getMinSteps() && length <= difficulty.getMaxSteps());
+            }
+        }
+        assertFalse(sampling.isPrecomputed());
+        assertNull(sampling.generate(generator.getMaxDistance() + 1, Integer.MAX_VALUE, random));
+
+        assertTrue(PuzzleGenerator.fits(PuzzleGenerator.MAX_WORDS));
+        assertFalse(PuzzleGenerator.fits(PuzzleGenerator.MAX_WORDS + 1));
+    }
+
+    @Test
+    @DisplayName("Test starting a random game of a given difficulty")
+    void testRandomGame() {
+        WeaverGame game = new WeaverGame(lexicon);
+        game.setRandom(new SplittableRandom(3));
+        game.setDifficulty(Difficulty.HARD);
+        game.initializeRandomGame();
+        assertTrue(solver.shortestPath(game.getStartWord(), game.getTargetWord()).getLength() >= 6);
+    }
+}
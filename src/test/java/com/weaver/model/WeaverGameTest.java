@@ -1,10 +1,19 @@
 package com.weaver.model;
 
+import com.weaver.metrics.MetricsRegistry;
+import com.weaver.metrics.MetricsSnapshot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class WeaverGameTest {
@@ -46,6 +55,125 @@ public class WeaverGameTest {
                 game.initializeGame("able", null)
             );
         }
+
+        @Test
+        @DisplayName("A missing dictionary fails with its path and is not cached")
+        void testMissingDictionary() {
+            UncheckedIOException e = assertThrows(UncheckedIOException.class, () ->
+                new WeaverGame("missing.txt")
+            );
+            assertTrue(e.getMessage().contains("missing.txt"), e.getMessage());
+            // A second attempt reads again instead of returning a cached empty dictionary
+            assertThrows(UncheckedIOException.class, () -> Lexicon.load("missing.txt"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Reachability Test")
+    class ReachabilityTests {
+        @Test
+        @DisplayName("Test component statistics of the dictionary")
+        void testComponentStatistics() {
+            ComponentIndex components = game.getShard().getComponents();
+            assertEquals(76, components.getComponentCount());
+            assertEquals(3932, components.getLargestComponentSize());
+            assertEquals(62, components.getIsolatedWordCount());
+            assertEquals(1, components.componentSize(game.getDictionary().indexOf(WordCodec.pack("aqua"))));
+        }
+
+        @Test
+        @DisplayName("Test constant-time reachability checks")
+        void testIsReachable() {
+            Lexicon lexicon = game.getLexicon();
+            assertTrue(lexicon.isReachable("fish", "bird"));
+            assertFalse(lexicon.isReachable("able", "aqua"));
+            assertFalse(lexicon.isReachable("able", "abxx"));
+        }
+
+        @Test
+        @DisplayName("Test that unreachable pairs are rejected only when required")
+        void testRequireReachable() {
+            assertDoesNotThrow(() -> game.initializeGame("able", "aqua"));
+            game.setRequireReachable(true);
+            assertThrows(IllegalArgumentException.class, () -> game.initializeGame("able", "aqua"));
+            assertDoesNotThrow(() -> game.initializeGame("fish", "bird"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Word Length Test")
+    class WordLengthTests {
+        private Lexicon mixed;
+
+        @BeforeEach
+        void loadMixedLengths() {
+            mixed = Lexicon.read("mixed-dictionary.txt");
+        }
+
+        @Test
+        @DisplayName("Test that shards are built only for the lengths played")
+        void testLazyShards() {
+            assertArrayEquals(new int[]{2, 3, 4, 5, 7}, mixed.getWordLengths());
+            assertEquals(7, mixed.countWordsOfLength(3));
+            assertEquals(4, mixed.countWordsOfLength(7));
+            assertEquals(0, mixed.countWordsOfLength(6));
+            // "internationalization" is too long to pack and is counted, not silently dropped
+            assertEquals(1, mixed.getSkippedLines());
+            assertTrue(mixed.contains("STONE"));
+            assertFalse(mixed.contains("stones"));
+            assertFalse(mixed.isShardLoaded(3) || mixed.isShardLoaded(4) || mixed.isShardLoaded(5));
+
+            WeaverGame mixedGame = new WeaverGame(mixed);
+            mixedGame.initializeGame("cat", "dog");
+            assertTrue(mixed.isShardLoaded(3));
+            assertFalse(mixed.isShardLoaded(4) || mixed.isShardLoaded(5));
+            assertEquals(3, mixedGame.getWordLength());
+            assertEquals(3, mixedGame.getParSteps());
+            assertFalse(mixedGame.tryWord("cold"));
+            assertTrue(mixedGame.tryWord("cot"));
+            assertEquals("cog", mixedGame.getHint());
+        }
+
+        @Test
+        @DisplayName("Test random games of a configured length")
+        void testRandomGameLength() {
+            WeaverGame mixedGame = new WeaverGame(mixed);
+            assertEquals(Lexicon.DEFAULT_WORD_LENGTH, mixedGame.getWordLength());
+            assertEquals(5, mixedGame.getRandomWord(5).length());
+            assertFalse(mixed.isShardLoaded(5));
+
+            mixedGame.setWordLength(5);
+            mixedGame.initializeRandomGame();
+            assertEquals(5, mixedGame.getStartWord().length());
+            assertTrue(mixed.isShardLoaded(5));
+            assertFalse(mixed.isShardLoaded(4));
+            assertThrows(AssertionError.class, () -> mixedGame.setWordLength(6));
+
+            // No three-letter ladder is long enough for MEDIUM, so any ladder is used
+            mixedGame.setWordLength(3);
+            mixedGame.initializeRandomGame();
+            assertEquals(3, mixedGame.getStartWord().length());
+            mixedGame.setWordLength(2);
+            assertThrows(IllegalStateException.class, mixedGame::initializeRandomGame);
+        }
+
+        @Test
+        @DisplayName("Test playing words longer than six letters")
+        void testLongWords() {
+            WeaverGame mixedGame = new WeaverGame(mixed);
+            mixedGame.initializeGame("painter", "pointed");
+            assertEquals(7, mixedGame.getWordLength());
+            assertEquals(2, mixedGame.getParSteps());
+            assertEquals("pointer", mixedGame.getHint());
+            assertFalse(mixedGame.tryWord("printed"));
+            assertTrue(mixedGame.tryWord("POINTER"));
+            assertTrue(mixedGame.tryWord("pointed"));
+            assertTrue(mixedGame.hasWon());
+            assertEquals(List.of("painter", "pointer", "pointed"), mixedGame.getGameHistory());
+
+            mixedGame.initializeRandomGame();
+            assertEquals(7, mixedGame.getStartWord().length());
+        }
     }
 
     @Nested
@@ -90,6 +218,25 @@ public class WeaverGameTest {
             );
         }
 
+        @Test
+        @DisplayName("Rejections report the difference before the dictionary, with or without the filter")
+        void testRejectionOrder() {
+            List<WeaverGame.GameEvent> rejections = new ArrayList<>();
+            game.getEventBus().subscribe(update -> rejections.add(update.getEvent()),
+                    WeaverGame.GameEvent.INVALID_DIFFERENCE, WeaverGame.GameEvent.NOT_IN_DICTIONARY);
+            for (boolean useFilter : new boolean[] {false, true}) {
+                rejections.clear();
+                game.setUseWordFilter(useFilter);
+                game.initializeGame("able", "ably");
+                assertFalse(game.tryWord("a12e"));
+                assertFalse(game.tryWord("ab1e"));
+                assertFalse(game.tryWord("axxe"));
+                assertFalse(game.tryWord("abxe"));
+                assertEquals(List.of(WeaverGame.GameEvent.INVALID_DIFFERENCE, WeaverGame.GameEvent.NOT_IN_DICTIONARY,
+                        WeaverGame.GameEvent.INVALID_DIFFERENCE, WeaverGame.GameEvent.NOT_IN_DICTIONARY), rejections);
+            }
+        }
+
         @Test
         @DisplayName("Test Duplicate Word Attempts")
         void testDuplicateWordTry() {
@@ -110,6 +257,52 @@ public class WeaverGameTest {
             assertTrue(game.hasWon());
         }
 
+        @Test
+        @DisplayName("Test par and remaining steps from the distance table")
+        void testParSteps() {
+            game.initializeGame("fish", "bird");
+            assertEquals(5, game.getParSteps());
+            assertEquals(5, game.getRemainingSteps());
+            game.tryWord("fist");
+            assertEquals(5, game.getParSteps());
+            assertEquals(4, game.getRemainingSteps());
+            game.initializeGame("able", "aqua");
+            assertEquals(DistanceTable.UNREACHABLE, game.getParSteps());
+        }
+
+        @Test
+        @DisplayName("Test that following hints wins the game in par")
+        void testHints() {
+            game.initializeGame("fish", "bird");
+            HintEngine engine = game.getShard().getHintEngine();
+            long misses = engine.getMisses();
+            for (int i = 0; i < 5; i++) {
+                assertTrue(game.tryWord(game.getHint()));
+            }
+            assertTrue(game.hasWon());
+            assertNull(game.getHint());
+            assertTrue(engine.getMisses() - misses <= 1);
+
+            game.initializeGame("able", "aqua");
+            assertNull(game.getHint());
+        }
+
+        @Test
+        @DisplayName("Test LRU eviction of hint trees")
+        void testHintCacheEviction() {
+            WordGraph graph = game.getWordGraph();
+            HintEngine engine = new HintEngine(graph, 2);
+            int fish = graph.indexOf("fish");
+            engine.nextStep(fish, graph.indexOf("bird"));
+            engine.nextStep(fish, graph.indexOf("cold"));
+            engine.nextStep(fish, graph.indexOf("bird"));
+            engine.nextStep(fish, graph.indexOf("warm"));
+            engine.nextStep(fish, graph.indexOf("bird"));
+            assertEquals(2, engine.getHits());
+            assertEquals(3, engine.getMisses());
+            assertEquals(1, engine.getEvictions());
+        }
+
         @Test
         @DisplayName("Game History Test")
         void testGameHistory() {
@@ -120,6 +313,169 @@ public class WeaverGameTest {
             assertEquals("able", history.get(0));
             assertEquals("ably", history.get(1));
         }
+
+        @Test
+        @DisplayName("Packed history access")
+        void testPackedHistory() {
+            game.initializeGame("able", "ably");
+            game.tryWord("aces");
+            game.tryWord("ABLY");
+            assertEquals(1, game.getStepCount());
+            assertEquals(2, game.getHistorySize());
+            assertEquals(WordCodec.pack("ably"), game.getHistoryPacked(1));
+            assertEquals("ably", game.getCurrentWord());
+        }
+    }
+
+    @Nested
+    @DisplayName("Event Bus Test")
+    class EventBusTests {
+        @Test
+        @DisplayName("Listeners receive only the events they subscribe to, with payloads")
+        void testTypedSubscriptions() {
+            List<GameUpdate> all = new ArrayList<>();
+            List<GameUpdate> rejections = new ArrayList<>();
+            // Updates are reused by the game, so listeners copy the ones they keep
+            GameEventListener allListener = update -> all.add(update.copy());
+            game.getEventBus().subscribe(allListener);
+            game.getEventBus().subscribe(update -> rejections.add(update.copy()),
+                    WeaverGame.GameEvent.INVALID_DIFFERENCE, WeaverGame.GameEvent.NOT_IN_DICTIONARY);
+
+            game.initializeGame("able", "ably");
+            game.tryWord("aces");
+            game.tryWord("ABLY");
+
+            assertEquals(4, all.size());
+            assertEquals(WeaverGame.GameEvent.GAME_INITIALIZED, all.get(0).getEvent());
+            assertEquals("able", all.get(0).getWord());
+            assertEquals(WeaverGame.GameEvent.WORD_ACCEPTED, all.get(2).getEvent());
+            assertEquals("ably", all.get(2).getWord());
+            assertEquals(1, all.get(2).getSteps());
+            assertEquals(WeaverGame.GameEvent.GAME_WON, all.get(3).getEvent());
+
+            assertEquals(1, rejections.size());
+            assertTrue(rejections.get(0).isRejection());
+            assertEquals("aces", rejections.get(0).getWord());
+
+            game.getEventBus().unsubscribe(allListener);
+            assertFalse(game.getEventBus().hasSubscribers(WeaverGame.GameEvent.WORD_ACCEPTED));
+            assertTrue(game.getEventBus().hasSubscribers(WeaverGame.GameEvent.NOT_IN_DICTIONARY));
+            game.initializeGame("able", "ably");
+            assertEquals(4, all.size());
+        }
+
+        @Test
+        @DisplayName("Observed moves reuse one update and decode the word only on request")
+        void testReusedUpdate() {
+            List<GameUpdate> seen = new ArrayList<>();
+            List<Long> words = new ArrayList<>();
+            game.getEventBus().subscribe(update -> {
+                seen.add(update);
+                words.add(update.getPackedWord());
+            });
+            game.initializeGame("able", "ably");
+            game.tryWord("aces");
+            game.tryWord("ably");
+
+            assertEquals(4, seen.size());
+            for (GameUpdate update : seen) {
+                assertSame(seen.get(0), update);
+            }
+            assertEquals(List.of(WordCodec.pack("able"), WordCodec.INVALID, WordCodec.pack("ably"),
+                    WordCodec.pack("ably")), words);
+            GameUpdate kept = seen.get(0).copy();
+            game.tryWord("able");
+            assertEquals(WeaverGame.GameEvent.GAME_WON, kept.getEvent());
+            assertEquals("ably", kept.getWord());
+        }
+
+        @Test
+        @DisplayName("Every event and sampled move latencies are recorded in the metrics registry")
+        void testMetrics() {
+            MetricsRegistry metrics = MetricsRegistry.getDefault();
+            MetricsSnapshot before = metrics.snapshot();
+            game.initializeGame("able", "ably");
+            for (int i = 0; i < 64; i++) {
+                game.tryWord("aces");
+            }
+            game.tryWord("abxe");
+            game.tryWord("ables");
+            game.tryWord("ably");
+
+            MetricsSnapshot after = metrics.snapshot();
+            assertEquals(64, delta(before, after, "game.events.invalid_difference"));
+            assertEquals(1, delta(before, after, "game.events.not_in_dictionary"));
+            assertEquals(1, delta(before, after, "game.events.invalid_length"));
+            assertEquals(1, delta(before, after, "game.events.word_accepted"));
+            assertEquals(1, delta(before, after, "game.events.game_won"));
+            assertTrue(after.getHistogram("game.try_word.latency").getCount()
+                    > before.getHistogram("game.try_word.latency").getCount());
+        }
+
+        private long delta(MetricsSnapshot before, MetricsSnapshot after, String name) {
+            return after.getValue(name) - before.getValue(name);
+        }
+
+        @Test
+        @DisplayName("Asynchronous delivery through a bounded buffer")
+        void testAsyncDelivery() throws InterruptedException {
+            CountDownLatch accepted = new CountDownLatch(1);
+            AsyncGameEventListener async = game.getEventBus().subscribeAsync(
+                    update -> accepted.countDown(), 4, WeaverGame.GameEvent.WORD_ACCEPTED);
+            game.initializeGame("able", "ably");
+            game.tryWord("ably");
+            assertTrue(accepted.await(5, TimeUnit.SECONDS));
+            async.close();
+            assertFalse(game.getEventBus().hasSubscribers(WeaverGame.GameEvent.WORD_ACCEPTED));
+            assertEquals(0, async.getDroppedCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Keyboard Filter Test")
+    class KeyboardFilterTests {
+        /**
+         * Letters that extend the prefix towards some valid move, by scanning the dictionary
+         */
+        private int bruteForce(String current, String typed) {
+            int mask = 0;
+            PackedDictionary dictionary = game.getDictionary();
+            for (int id = 0; id < dictionary.size(); id++) {
+                String word = dictionary.wordAt(id);
+                if (word.length() == current.length() && word.length() > typed.length()
+                        && word.startsWith(typed) && WordCodec.difference(
+                                WordCodec.pack(word), WordCodec.pack(current)) == 1) {
+                    mask |= 1 << (word.charAt(typed.length()) - 'a');
+                }
+            }
+            return mask;
+        }
+
+        @Test
+        @DisplayName("Masks match a dictionary scan for every one- and two-letter prefix")
+        void testNextLetterMask() {
+            for (String start : new String[]{"fish", "able", "aqua"}) {
+                game.initializeGame(start, start);
+                assertEquals(bruteForce(start, ""), game.getNextLetterMask(""));
+                for (char a = 'a'; a <= 'z'; a++) {
+                    String one = String.valueOf(a);
+                    assertEquals(bruteForce(start, one), game.getNextLetterMask(one.toUpperCase()), one);
+                    for (char b = 'a'; b <= 'z'; b++) {
+                        assertEquals(bruteForce(start, one + b), game.getNextLetterMask(one + b), one + b);
+                    }
+                }
+                assertEquals(0, game.getNextLetterMask(start));
+            }
+        }
+
+        @Test
+        @DisplayName("Masks follow the current word")
+        void testMaskAfterMove() {
+            game.initializeGame("fish", "bird");
+            game.tryWord("fist");
+            assertEquals(bruteForce("fist", "fis"), game.getNextLetterMask("fis"));
+            assertEquals(0, game.getNextLetterMask("fi1"));
+        }
     }
 
     @Nested
@@ -138,6 +494,17 @@ public class WeaverGameTest {
             assertDoesNotThrow(() -> game.initializeGame(randomWord, "able"));
         }
 
+        @Test
+        @DisplayName("Test that a seeded generator gives reproducible words")
+        void testSeededRandomWords() {
+            WeaverGame other = new WeaverGame(game.getLexicon());
+            game.setRandom(new SplittableRandom(42));
+            other.setRandom(new SplittableRandom(42));
+            for (int i = 0; i < 10; i++) {
+                assertEquals(game.getRandomWord(4), other.getRandomWord(4));
+            }
+        }
+
         @Test
         @DisplayName("Test random word generation for assertion-invalid length")
         void testRandomWordGenerationInvalidLength() {
@@ -150,6 +517,29 @@ public class WeaverGameTest {
         }
     }
 
+    @Nested
+    @DisplayName("Shared Lexicon Test")
+    class SharedLexiconTests {
+        @Test
+        @DisplayName("Test that games on the same path share one lexicon")
+        void testLexiconIsShared() {
+            WeaverGame other = new WeaverGame("dictionary.txt");
+            assertSame(Lexicon.load("dictionary.txt"), game.getLexicon());
+            assertSame(game.getLexicon(), other.getLexicon());
+        }
+
+        @Test
+        @DisplayName("Test that sessions sharing a lexicon keep separate state")
+        void testSessionsAreIndependent() {
+            WeaverGame other = new WeaverGame(game.getLexicon());
+            game.initializeGame("able", "ably");
+            other.initializeGame("fish", "bird");
+            assertTrue(game.tryWord("ably"));
+            assertEquals(1, other.getGameHistory().size());
+            assertEquals("fish", other.getCurrentWord());
+        }
+    }
+
     @Nested
     @DisplayName("Game Setup testing")
     class GameSettingsTests {
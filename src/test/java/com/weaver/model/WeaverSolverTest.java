@@ -0,0 +1,177 @@
+package com.weaver.model;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeaverSolverTest {
+    private static WeaverGame game;
+    private static WeaverSolver solver;
+
+    @BeforeAll
+    static void setUp() {
+        game = new WeaverGame("dictionary.txt");
+        solver = new WeaverSolver(game.getWordGraph());
+    }
+
+    @Test
+    @DisplayName("Test the shortest ladder length for known pairs")
+    void testShortestLength() {
+        assertEquals(1, solver.shortestPath("able", "ably").getLength());
+        assertEquals(4, solver.shortestPath("cold", "warm").getLength());
+        assertEquals(5, solver.shortestPath("fish", "bird").getLength());
+        assertEquals(5, solver.shortestPath("SOUL", "MATE").getLength());
+    }
+
+    @Test
+    @DisplayName("Test that every step of the returned path is a valid move")
+    void testPathIsPlayable() {
+        SolverResult result = solver.shortestPath("fish", "bird");
+        assertTrue(result.isSolvable());
+        assertTrue(result.getExpandedNodes() > 0);
+
+        List<String> path = result.getPath();
+        game.initializeGame(path.get(0), path.get(path.size() - 1));
+        for (String word : path.subList(1, path.size())) {
+            assertTrue(game.tryWord(word));
+        }
+        assertTrue(game.hasWon());
+    }
+
+    @Test
+    @DisplayName("Test the word graph neighbours and footprint")
+    void testWordGraph() {
+        WordGraph graph = game.getWordGraph();
+        assertEquals(game.getDictionary().size(), graph.size());
+        assertEquals(44014, graph.edgeCount());
+
+        int able = graph.indexOf("able");
+        boolean foundAbly = false;
+        for (int e = graph.edgeStart(able); e < graph.edgeEnd(able); e++) {
+            foundAbly |= graph.getWord(graph.edgeTarget(e)).equals("ably");
+        }
+        assertTrue(foundAbly);
+        assertEquals(0, graph.degree(graph.indexOf("aqua")));
+        assertEquals(-1, graph.indexOf("abxx"));
+        assertTrue(graph.getMemoryFootprint() > 0);
+    }
+
+    @Test
+    @DisplayName("Test that the wildcard-bucket build matches the probing build")
+    void testBucketBuildMatchesProbing() {
+        SplittableRandom random = new SplittableRandom(5);
+        long[] words = new long[20000];
+        for (int i = 0; i < words.length; i++) {
+            // A small alphabet and mixed lengths give dense buckets; words
+            // longer than six letters take the hashed bucket keys
+            int length = 3 + random.nextInt(10);
+            long packed = 0;
+            for (int j = 0; j < length; j++) {
+                packed = (packed << 5) | (1 + random.nextInt(6));
+            }
+            words[i] = packed;
+        }
+        for (PackedDictionary dictionary : List.of(game.getDictionary(), PackedDictionary.of(words, words.length))) {
+            WordGraph buckets = WordGraph.build(dictionary);
+            WordGraph probing = WordGraph.buildByProbing(dictionary);
+            assertEquals(probing.edgeCount(), buckets.edgeCount());
+            for (int id = 0; id < dictionary.size(); id++) {
+                assertEquals(probing.edgeStart(id), buckets.edgeStart(id));
+            }
+            for (int e = 0; e < probing.edgeCount(); e++) {
+                assertEquals(probing.edgeTarget(e), buckets.edgeTarget(e));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test that dictionaries too large for a distance table are refused")
+    void testDistanceTableLimit() {
+        long[] words = new long[DistanceTable.MAX_WORDS + 1];
+        for (int i = 0; i < words.length; i++) {
+            // Four letters counting up in base 26
+            long packed = 0;
+            for (int j = 0, rest = i; j < 4; j++, rest /= 26) {
+                packed = (packed << 5) | (1 + rest % 26);
+            }
+            words[i] = packed;
+        }
+        WordGraph graph = WordGraph.build(PackedDictionary.of(words, words.length));
+        assertNull(DistanceTable.loadOrBuild(graph, 0, Path.of("unused.dist")));
+        assertThrows(IllegalArgumentException.class, () -> DistanceTable.build(graph));
+        assertTrue(game.getShard().hasDistanceTable());
+    }
+
+    @Test
+    @DisplayName("Test that distances of 128 steps and more are read as unsigned")
+    void testLongLadderDistance() {
+        // Raise one position by a letter per step, cycling through the positions:
+        // words more than one step apart differ in at least two letters
+        int steps = 6 * 25;
+        long[] words = new long[steps + 1];
+        for (int k = 0; k <= steps; k++) {
+            long packed = 0;
+            for (int position = 0; position < 6; position++) {
+                packed = (packed << 5) | (1 + k / 6 + (position < k % 6 ? 1 : 0));
+            }
+            words[k] = packed;
+        }
+        WordGraph graph = WordGraph.build(PackedDictionary.of(words, words.length));
+        DistanceTable table = DistanceTable.build(graph);
+        int first = graph.indexOf(WordCodec.unpack(words[0]));
+        int last = graph.indexOf(WordCodec.unpack(words[steps]));
+        assertEquals(steps, table.distance(first, last));
+        assertEquals(128, table.distance(first, graph.indexOf(WordCodec.unpack(words[128]))));
+    }
+
+    @Test
+    @DisplayName("Test the same start and target word")
+    void testSameWord() {
+        SolverResult result = solver.shortestPath("able", "able");
+        assertEquals(0, result.getLength());
+        assertEquals(List.of("able"), result.getPath());
+    }
+
+    static Stream<SearchStrategy> strategies() {
+        return Stream.of(new BfsStrategy(), new BidirectionalBfsStrategy(), new AStarStrategy());
+    }
+
+    @ParameterizedTest
+    @MethodSource("strategies")
+    @DisplayName("Test that every strategy finds optimal ladders")
+    void testStrategiesAreOptimal(SearchStrategy strategy) {
+        WeaverSolver strategySolver = new WeaverSolver(game.getWordGraph(), strategy);
+        LexiconShard shard = game.getShard();
+        DistanceTable table = shard.getDistanceTable();
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < 200; i++) {
+            int a = random.nextInt(shard.size());
+            int b = random.nextInt(shard.size());
+            SolverResult result = strategySolver.shortestPath(
+                    shard.getDictionary().wordAt(a), shard.getDictionary().wordAt(b));
+            assertEquals(table.distance(a, b), result.getLength());
+            assertTrue(result.getElapsedNanos() > 0);
+        }
+        SolverResult result = strategySolver.shortestPath("fish", "bird");
+        assertEquals(5, result.getLength());
+        assertTrue(result.getPeakFrontierSize() > 0);
+        assertFalse(strategySolver.shortestPath("able", "aqua").isSolvable());
+    }
+
+    @Test
+    @DisplayName("Test unsolvable pairs - isolated word and unknown word")
+    void testUnsolvable() {
+        assertFalse(solver.shortestPath("able", "aqua").isSolvable());
+        assertFalse(solver.shortestPath("able", "abxx").isSolvable());
+        assertEquals(-1, solver.shortestPath("able", "abxx").getLength());
+    }
+}
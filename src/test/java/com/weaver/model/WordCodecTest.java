@@ -0,0 +1,56 @@
+package com.weaver.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WordCodecTest {
+    @Test
+    @DisplayName("Test packing and unpacking round trip")
+    void testRoundTrip() {
+        assertEquals("able", WordCodec.unpack(WordCodec.pack("able")));
+        assertEquals("zzzzzz", WordCodec.unpack(WordCodec.pack("zzzzzz")));
+        assertEquals("zzzzzzzzzzzz", WordCodec.unpack(WordCodec.pack("zzzzzzzzzzzz")));
+        assertEquals(12, WordCodec.length(WordCodec.pack("weatherproof")));
+        assertEquals(WordCodec.pack("able"), WordCodec.pack("ABLE"));
+        assertEquals(4, WordCodec.length(WordCodec.pack("able")));
+    }
+
+    @Test
+    @DisplayName("Test words that cannot be packed")
+    void testInvalidWords() {
+        assertEquals(WordCodec.INVALID, WordCodec.pack(""));
+        assertEquals(WordCodec.INVALID, WordCodec.pack("ab1e"));
+        assertEquals(WordCodec.INVALID, WordCodec.pack("abcdefghijklm"));
+    }
+
+    @Test
+    @DisplayName("Test packed order matches string order for equal lengths")
+    void testOrdering() {
+        assertTrue(WordCodec.pack("able") < WordCodec.pack("ably"));
+        assertTrue(WordCodec.pack("ably") < WordCodec.pack("bird"));
+        assertTrue(WordCodec.pack("fish") < WordCodec.pack("zzzz"));
+    }
+
+    @Test
+    @DisplayName("Test the letter difference on packed words")
+    void testDifference() {
+        assertEquals(0, WordCodec.difference(WordCodec.pack("able"), WordCodec.pack("able")));
+        assertEquals(1, WordCodec.difference(WordCodec.pack("able"), WordCodec.pack("ably")));
+        assertEquals(2, WordCodec.difference(WordCodec.pack("able"), WordCodec.pack("axly")));
+        assertEquals(3, WordCodec.difference(WordCodec.pack("fish"), WordCodec.pack("bird")));
+        // Letters whose codes differ only in the high bits of a lane still count once
+        assertEquals(1, WordCodec.difference(WordCodec.pack("a"), WordCodec.pack("q")));
+        assertEquals(1, WordCodec.difference(WordCodec.pack("reweighting"), WordCodec.pack("reweighzing")));
+        assertEquals(12, WordCodec.difference(WordCodec.pack("aaaaaaaaaaaa"), WordCodec.pack("zzzzzzzzzzzz")));
+    }
+
+    @Test
+    @DisplayName("Test reading and replacing letters")
+    void testLetters() {
+        long able = WordCodec.pack("able");
+        assertEquals(2, WordCodec.letterAt(able, 4, 1));
+        assertEquals("ably", WordCodec.unpack(WordCodec.withLetter(able, 4, 3, 'y' - 'a' + 1)));
+    }
+}
@@ -0,0 +1,68 @@
+package com.weaver.model;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WordFilterTest {
+    private static LexiconShard shard;
+
+    @BeforeAll
+    static void setUp() {
+        shard = Lexicon.load("dictionary.txt").shard(4);
+    }
+
+    @Test
+    @DisplayName("Every dictionary word passes the filter")
+    void testNoFalseNegatives() {
+        PackedDictionary dictionary = shard.getDictionary();
+        WordFilter filter = WordFilter.build(dictionary, WordFilter.DEFAULT_BITS_PER_WORD);
+        for (int id = 0; id < dictionary.size(); id++) {
+            assertTrue(filter.mightContain(dictionary.packedAt(id)), WordCodec.unpack(dictionary.packedAt(id)));
+        }
+        assertEquals(0, filter.getSavedLookups());
+    }
+
+    @Test
+    @DisplayName("About one in a hundred non-words gets through")
+    void testFalsePositiveRate() {
+        PackedDictionary dictionary = shard.getDictionary();
+        WordFilter filter = WordFilter.build(dictionary, WordFilter.DEFAULT_BITS_PER_WORD);
+        SplittableRandom random = new SplittableRandom(42);
+        int nonWords = 0;
+        while (nonWords < 100_000) {
+            char[] letters = new char[4];
+            for (int i = 0; i < letters.length; i++) {
+                letters[i] = (char) ('a' + random.nextInt(26));
+            }
+            long packed = WordCodec.pack(new String(letters));
+            if (dictionary.indexOf(packed) < 0) {
+                nonWords++;
+                if (filter.mightContain(packed)) {
+                    filter.recordFalsePositive();
+                }
+            }
+        }
+        assertEquals(nonWords, filter.getSavedLookups() + filter.getFalsePositives());
+        assertTrue(filter.getFalsePositiveRate() < 0.02, filter.toString());
+    }
+
+    @Test
+    @DisplayName("A filtered game accepts and rejects the same words and counts saved lookups")
+    void testFilteredGame() {
+        WeaverGame game = new WeaverGame("dictionary.txt");
+        game.setUseWordFilter(true);
+        game.initializeGame("able", "ably");
+        WordFilter filter = game.getShard().getWordFilter();
+        long saved = filter.getSavedLookups() + filter.getFalsePositives();
+
+        assertFalse(game.tryWord("abxe"));
+        assertFalse(game.tryWord("aces"));
+        assertTrue(game.tryWord("ably"));
+        assertEquals(saved + 1, filter.getSavedLookups() + filter.getFalsePositives());
+    }
+}
@@ -0,0 +1,171 @@
+package com.weaver.server;
+
+import com.weaver.model.Lexicon;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WeaverServerTest {
+    private WeaverServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new WeaverServer(Lexicon.load("dictionary.txt"), InetAddress.getLoopbackAddress(), 0);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+    }
+
+    /**
+     * Minimal loopback client speaking the line protocol
+     */
+    private class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final PrintWriter out;
+
+        Client() throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII);
+            assertEquals("WELCOME Weaver", in.readLine());
+        }
+
+        String send(String request) throws IOException {
+            out.println(request);
+            return in.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    @Nested
+    @DisplayName("Protocol Test")
+    class ProtocolTests {
+        @Test
+        @DisplayName("Play a game over a loopback connection")
+        void testPlayGame() throws IOException {
+            try (Client client = new Client()) {
+                assertTrue(client.send("STATE").startsWith("ERR"));
+                assertEquals("OK able ably", client.send("START ABLE ABLY"));
+                assertEquals("REJECTED INVALID_DIFFERENCE", client.send("GUESS aces"));
+                assertEquals("REJECTED INVALID_LENGTH", client.send("ables"));
+                assertEquals("HINT ably", client.send("HINT"));
+                assertEquals("WON ably 1", client.send("ably"));
+                assertEquals("STATE able ably ably 1", client.send("STATE"));
+                assertEquals("BYE", client.send("QUIT"));
+            }
+        }
+
+        @Test
+        @DisplayName("Invalid start words and random games")
+        void testStart() throws IOException {
+            try (Client client = new Client()) {
+                assertTrue(client.send("START aqua fish").startsWith("ERR"));
+                assertTrue(client.send("START zzzz fish").startsWith("ERR"));
+                assertTrue(client.send("START").startsWith("OK "));
+                assertTrue(client.send("FOO BAR").startsWith("ERR"));
+            }
+        }
+
+        @Test
+        @DisplayName("Random games of lengths without ladders of the difficulty")
+        void testStartLength() {
+            GameSession session = new GameSession(null, Lexicon.load("mixed-dictionary.txt"), null);
+            assertTrue(session.handle("START 3").startsWith("OK "));
+            String state = session.handle("STATE");
+            assertEquals("ERR no two words of this length are connected", session.handle("START 2"));
+            assertEquals(state, session.handle("STATE"));
+            assertTrue(session.handle("START 5").startsWith("OK "));
+        }
+    }
+
+    @Nested
+    @DisplayName("Journal Test")
+    class JournalTests {
+        @Test
+        @DisplayName("Sessions can be resumed after a restart")
+        void testResume(@TempDir Path dir) throws IOException {
+            server.close();
+            Path journal = dir.resolve("server.journal");
+            Lexicon lexicon = Lexicon.load("dictionary.txt");
+            String session;
+            try (WeaverServer journaled = new WeaverServer(lexicon, InetAddress.getLoopbackAddress(), 0, journal)) {
+                server = journaled;
+                try (Client client = new Client()) {
+                    session = client.send("SESSION").split(" ")[1];
+                    client.send("START fish bird");
+                    assertEquals("ACCEPTED fist 1", client.send("fist"));
+                }
+            }
+            try (WeaverServer restarted = new WeaverServer(lexicon, InetAddress.getLoopbackAddress(), 0, journal)) {
+                server = restarted;
+                assertEquals(1, restarted.getRecoveredSessionCount());
+                try (Client client = new Client()) {
+                    // Neighbouring IDs are not other clients' sessions
+                    long id = Long.parseLong(session);
+                    assertTrue(client.send("RESUME " + (id + 1)).startsWith("ERR"));
+                    assertTrue(client.send("RESUME " + (id - 1)).startsWith("ERR"));
+                    assertEquals(1, restarted.getRecoveredSessionCount());
+                    assertEquals("STATE fish bird fist 1", client.send("RESUME " + session));
+                    assertEquals("ACCEPTED gist 2", client.send("gist"));
+                    assertTrue(client.send("RESUME " + session).startsWith("ERR"));
+                    // The connection now plays, and reports, the resumed session
+                    assertEquals("SESSION " + session, client.send("SESSION"));
+                }
+            }
+            try (WeaverServer again = new WeaverServer(lexicon, InetAddress.getLoopbackAddress(), 0, journal)) {
+                server = again;
+                try (Client client = new Client()) {
+                    assertEquals("STATE fish bird gist 2", client.send("RESUME " + session));
+                }
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Concurrency Test")
+    class ConcurrencyTests {
+        @Test
+        @DisplayName("Independent sessions share the dictionary")
+        void testConcurrentSessions() throws Exception {
+            List<Client> clients = new ArrayList<>();
+            try {
+                for (int i = 0; i < 200; i++) {
+                    clients.add(new Client());
+                }
+                assertEquals(200, server.getActiveSessionCount());
+                for (Client client : clients) {
+                    assertEquals("OK fish bird", client.send("START fish bird"));
+                }
+                assertEquals("ACCEPTED fist 1", clients.get(0).send("fist"));
+                assertEquals("STATE fish bird fish 0", clients.get(1).send("STATE"));
+            } finally {
+                for (Client client : clients) {
+                    client.close();
+                }
+            }
+        }
+    }
+}
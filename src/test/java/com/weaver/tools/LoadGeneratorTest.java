@@ -0,0 +1,33 @@
+package com.weaver.tools;
+
+import com.weaver.model.Lexicon;
+import com.weaver.server.WeaverServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadGeneratorTest {
+    @Test
+    @DisplayName("Bots play full games in process")
+    void testInProcess() throws Exception {
+        LoadGenerator.Report report = new LoadGenerator().setThreads(2).setDurationSeconds(1).run();
+        assertTrue(report.getMoves() > 0);
+        assertTrue(report.getGamesWon() > 0);
+        assertEquals(report.getMoves(), report.getLatency().getCount());
+    }
+
+    @Test
+    @DisplayName("Bots play against the server")
+    void testServer() throws Exception {
+        try (WeaverServer server = new WeaverServer(Lexicon.load("dictionary.txt"),
+                InetAddress.getLoopbackAddress(), 0)) {
+            LoadGenerator.Report report = new LoadGenerator().setServerMode(true)
+                    .setHost(InetAddress.getLoopbackAddress().getHostAddress()).setPort(server.getPort())
+                    .setThreads(2).setDurationSeconds(1).run();
+            assertTrue(report.getGamesWon() > 0);
+        }
+    }
+}